@@ -45,8 +45,13 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Locale;
 import java.util.Scanner;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 public class BigDecimalTestDataGenerator
 {
@@ -89,8 +94,60 @@ public class BigDecimalTestDataGenerator
         }
     }
 
+    // The signs of values[i].compareTo(values[j]), packed in 2 bits per pair (0 = 0, 1 = 1, 
+    // 3 = -1). Only the upper triangle (i <= j) is stored, and each of its rows starts at a new 
+    // long, so the rows can be filled in parallel without sharing a long. The lower triangle 
+    // is the negated upper triangle.
+    static final class SignMatrix
+    {
+        final int count;
+        final long[] rowStarts;
+        final long[] bits;
+
+        <T extends Comparable<? super T>> SignMatrix(T[] values)
+        {
+            count = values.length;
+            rowStarts = new long[count + 1];
+            for (int i = 0; i < count; i++)
+                rowStarts[i + 1] = rowStarts[i] + (count - i + 31) / 32;
+            if (rowStarts[count] > Integer.MAX_VALUE - 8)
+                throw new IllegalArgumentException("Too many values for a sign matrix: " + count);
+            bits = new long[(int)rowStarts[count]];
+
+            IntStream.range(0, count).parallel().forEach(i ->
+            {
+                int start = (int)rowStarts[i];
+                for (int j = i; j < count; j++)
+                {
+                    long sign = Integer.signum(values[i].compareTo(values[j])) & 3;
+                    bits[start + (j - i) / 32] |= sign << (2 * ((j - i) % 32));
+                }
+            });
+        }
+
+        int get(int i, int j)
+        {
+            if (i > j)
+                return -get(j, i);
+            long word = bits[(int)rowStarts[i] + (j - i) / 32];
+            return ((int)(word >>> (2 * ((j - i) % 32))) << 30) >> 30;
+        }
+    }
+    
+    // Command line options. The math tier (-math) is not generated by default, because it takes
+    // a while.
+    static ArrayList<String> options = new ArrayList<>();
+    
+    static boolean isOptionSet(String option)
+    {
+        return options.contains(option);
+    }
+    
     public static void main(String[] args)
     {
+        for (String arg: args)
+            options.add(arg.toLowerCase(Locale.ROOT));
+        
         // TODO: Add bad results (exceptions) too, and set result info accordingly.
 
         try
@@ -99,6 +156,10 @@ public class BigDecimalTestDataGenerator
             BufferedWriter bw = new BufferedWriter(new FileWriter(outfile));
             println("Writing file " + outfile.getCanonicalPath());
             println();
+            println("You'll see a long list of errors. This is expected. The generated errors are");
+            println("registered and stored in the result arrays generated by this program");
+            println();
+            println();
             try
             {
                 writeDate(bw);
@@ -130,6 +191,30 @@ public class BigDecimalTestDataGenerator
         {
             println("Error " + e.getClass().getName() + ": " + e.getMessage());
         }
+        
+        if (isOptionSet("-math"))
+        {
+            try
+            {
+                File outfile = new File("..\\..\\..\\Tests\\BigDecimals\\BigDecimalMathResults.inc");
+                BufferedWriter bw = new BufferedWriter(new FileWriter(outfile));
+                println("Writing file " + outfile.getCanonicalPath());
+                println();
+                try
+                {
+                    writeDate(bw);
+                    generateMathResults(bw);
+                }
+                finally
+                {
+                    bw.close();
+                }
+            }
+            catch (IOException e)
+            {
+                println("Error " + e.getClass().getName() + ": " + e.getMessage());
+            }
+        }
 
         println();
     }
@@ -228,11 +313,6 @@ public class BigDecimalTestDataGenerator
         println(bw, "//");
         println(bw, "// The generator was written in Java, using NetBeans 8.0.2.");
         println(bw);
-
-        println("You'll see a long list of errors. This is expected. The generated errors are");
-        println("registered and stored in the result arrays generated by this program");
-        println();
-        println();
     }
 
     static void writeTypes(BufferedWriter bw) throws IOException
@@ -695,6 +775,37 @@ public class BigDecimalTestDataGenerator
         println(bw);
     }
     
+    // The message of the ArithmeticException setScale throws for RoundingMode.UNNECESSARY.
+    static final String ROUNDING_NECESSARY = "Rounding necessary";
+    
+    // Returns the results of a.setScale() for the SCALES (in reverse order) and each rounding mode.
+    // Only RoundingMode.UNNECESSARY can fail, if the scale is below the minimal scale of a, so 
+    // that is checked up front, instead of catching the exception.
+    static TestResult[] roundToResults(BigDecimal a, RoundingMode[] vals)
+    {
+        int minScale = a.signum() == 0 ? Integer.MIN_VALUE : removeTrailingZeros(a, Integer.MIN_VALUE).scale();
+        TestResult[] results = new TestResult[SCALES.length * vals.length];
+        
+        int m = 0;
+        for (int j = SCALES.length - 1; j >= 0; --j)
+            for (int k = 0; k < vals.length; ++k, ++m)
+            {
+                TestResult tr = new TestResult();
+                if (vals[k] == RoundingMode.UNNECESSARY && SCALES[j] < minScale)
+                {
+                    tr.info = TestResultInfo.ReverseRound;
+                    tr.val = ROUNDING_NECESSARY;
+                }
+                else
+                {
+                    tr.info = TestResultInfo.Ok;
+                    tr.val = a.setScale(SCALES[j], vals[k]).toString();
+                }
+                results[m] = tr;
+            }
+        return results;
+    }
+    
     static void generateRoundToResults(BufferedWriter bw) throws IOException
     {
         RoundingMode vals[] = RoundingMode.values();
@@ -719,38 +830,37 @@ public class BigDecimalTestDataGenerator
         println(bw, "  RoundToResults: array[0.. RoundToCount - 1] of TTestResult =");
         println(bw, "  (");
 
+        // The results for each argument are calculated in parallel, and written in order.
+        TestResult[][] results = new TestResult[argCount][];
+        IntStream.range(0, argCount).parallel().forEach(i -> results[i] = roundToResults(arguments[i], vals));
+
         for (int i = 0; i < argCount; ++i)
         {
-            BigDecimal a = arguments[i];
+            int m = 0;
             for (int j = scalesCount - 1; j >= 0; --j)
-                for (int k = 0; k < valsCount; ++k)
+                for (int k = 0; k < valsCount; ++k, ++m)
                 {
-                    TestResult tr = new TestResult();
-                    try
-                    {
-                        tr.info = TestResultInfo.Ok;
-                        tr.val = a.setScale(SCALES[j], vals[k]).toString();
-                    }
-                    catch(ArithmeticException e)
-                    {
-                        println("(%2d, %2d, %2d) - Rounding error: %s", i, j, k, e.getMessage());
-                        tr.info = TestResultInfo.ReverseRound;
-                        tr.val = e.getMessage();
-                    }
+                    TestResult tr = results[i][m];
+                    if (tr.info == TestResultInfo.ReverseRound)
+                        println("(%2d, %2d, %2d) - Rounding error: %s", i, j, k, tr.val);
                     n++;
                     formatResult(bw, tr, (n == totalCount), String.format("Arguments[%d].RoundTo(%d, %s)", i, -SCALES[j], convertRoundingMode(vals[k])));
                 }
-            
         }
         println(bw, "  );");
         println(bw);
     }
     
+    static final String[] SIGN_STRINGS = { "-1", " 0", " 1" };
+    
     static void generateComparisons(BufferedWriter bw) throws IOException
     {
         String compData[] = COMPARISONDATA;
         int count = compData.length;
-        int result;
+        BigDecimal values[] = new BigDecimal[count];
+        for (int i = 0; i < count; ++i)
+            values[i] = new BigDecimal(compData[i]);
+        SignMatrix signs = new SignMatrix(values);
 
         println(bw, "  CompCount = %d;", count);
         println(bw, "  CompArguments: array[0..CompCount - 1] of string =");
@@ -766,17 +876,9 @@ public class BigDecimalTestDataGenerator
         for (int i = 0; i < count; ++i)
         {
             bw.write("    (");
-            BigDecimal d1 = new BigDecimal(compData[i]);
             for (int j = 0; j < count; ++j, ++n)
             {
-                BigDecimal d2 = new BigDecimal(compData[j]);
-                result = d1.compareTo(d2);
-                if (result < 0)
-                    bw.write("-1");
-                else if (result > 0)
-                    bw.write(" 1");
-                else
-                    bw.write(" 0");
+                bw.write(SIGN_STRINGS[signs.get(i, j) + 1]);
                 if (j < count - 1)
                     bw.write(", ");
             }
@@ -808,28 +910,61 @@ public class BigDecimalTestDataGenerator
         println(bw);
     }
     
+    // Removes trailing zeros from the unscaled value, but not beyond the preferred scale.
+    //
+    // Instead of dividing by 10 once per zero, this counts the factors of 2 and 5. There can't 
+    // be more zeros than factors of 2, so the factors of 2 are shifted out. The factors of 5 of 
+    // the odd part are then found by trying to divide by 5^(2^k), from high k to low k, i.e. a
+    // binary search. Finally, the factors of 2 that are not paired with a 5 are shifted back in.
     public static BigDecimal removeTrailingZeros(BigDecimal value, int preferredScale)
     {
-        BigDecimal result;
         int sign = value.signum();
         BigInteger unscaled = value.unscaledValue().abs();
         int scale = value.scale();
         
-        while (unscaled.compareTo(BigInteger.TEN) >= 0 && scale > preferredScale)
+        if (sign == 0 || scale <= preferredScale)
+            return value;
+        
+        int twos = unscaled.getLowestSetBit();
+        long limit = Math.min((long)scale - preferredScale, twos);
+        if (limit == 0)
+            return value;
+        
+        BigInteger odd = unscaled.shiftRight(twos);
+        int zeros = 0;
+        int k = 31 - Integer.numberOfLeadingZeros((int)limit);
+        for (; k >= 0; k--)
         {
-             BigInteger[] quotRem = unscaled.divideAndRemainder(BigInteger.TEN);
-             if (quotRem[1].signum() == 0)
-             {
-                 unscaled = quotRem[0];
-                 scale--;        
-             }
-             else
-                 break;
+            int step = 1 << k;
+            if (zeros + step > limit)
+                continue;
+            BigInteger[] quotRem = odd.divideAndRemainder(fivePower(k));
+            if (quotRem[1].signum() == 0)
+            {
+                odd = quotRem[0];
+                zeros += step;
+            }
         }
         
-        return new BigDecimal(unscaled.multiply(BigInteger.valueOf(sign)), scale);
+        if (zeros == 0)
+            return value;
+        unscaled = odd.shiftLeft(twos - zeros);
+        return new BigDecimal(sign < 0 ? unscaled.negate() : unscaled, scale - zeros);
+    }
+    
+    // Returns 5^(2^k). The powers are calculated once, by squaring, and cached.
+    static synchronized BigInteger fivePower(int k)
+    {
+        while (fivePowers.size() <= k)
+        {
+            BigInteger last = fivePowers.get(fivePowers.size() - 1);
+            fivePowers.add(last.multiply(last));
+        }
+        return fivePowers.get(k);
     }
     
+    static ArrayList<BigInteger> fivePowers = new ArrayList<>(Arrays.asList(BigInteger.valueOf(5)));
+    
     public static void generateRemoveTrailingZerosResults(BufferedWriter bw) throws IOException
     {
         println(bw, "  RTZRCount = TestCount * TestDigitCount;");
@@ -838,18 +973,24 @@ public class BigDecimalTestDataGenerator
         
         int count = arguments.length;
         int scalesCount = SCALES.length;
-        int n = 0;
+        
+        // The results for each argument are calculated in parallel, and written in order.
+        String[][] results = new String[count][scalesCount];
+        IntStream.range(0, count).parallel().forEach(i -> 
+        {
+            for (int j = scalesCount - 1; j >= 0; j--)
+                results[i][j] = removeTrailingZeros(arguments[i], -SCALES[j]).toString();
+        });
+        
         for (int i = 0; i < count; i++)
         {
-            BigDecimal d1 = arguments[i];
             for (int j = scalesCount - 1; j >= 0; j--)
             {
                 int preferred = -SCALES[j];
-                BigDecimal d2 = removeTrailingZeros(d1, preferred);
                 
                 TestResult tr = new TestResult();
                 tr.info = TestResultInfo.Ok;
-                tr.val = d2.toString();
+                tr.val = results[i][j];
                 formatResult(bw, tr, (i == count - 1 && j == 0), 
                         String.format("Arguments[%d].RemoveTrailingZeros(%d)", i, preferred));
             }
@@ -899,6 +1040,374 @@ public class BigDecimalTestDataGenerator
         println(bw);
     }
 
+    // High precision math results: Sqrt, Exp, Ln, Pow and the constants Pi, Ln(2) and Ln(10), 
+    // for each of MATH_PRECISIONS. Everything is calculated with GUARD_DIGITS more digits and 
+    // then rounded half even. Sqrt is even correctly rounded in all cases.
+    static BigInteger isqrt(BigInteger n)
+    {
+        if (n.bitLength() <= 52)
+        {
+            // Math.sqrt() may round up to the next integer, so correct the result.
+            long value = n.longValue();
+            long root = (long)Math.sqrt(value);
+            while (root * root > value)
+                root--;
+            while ((root + 1) * (root + 1) <= value)
+                root++;
+            return BigInteger.valueOf(root);
+        }
+        
+        // The root of the top half of n, plus one, shifted back, is >= the root of n and already has 
+        // half of the bits. From there on, the Newton iterations decrease until they reach the root.
+        int shift = n.bitLength() / 4;
+        BigInteger root = isqrt(n.shiftRight(2 * shift)).add(BigInteger.ONE).shiftLeft(shift);
+        while (true)
+        {
+            BigInteger next = root.add(n.divide(root)).shiftRight(1);
+            if (next.compareTo(root) >= 0)
+                return root;
+            root = next;
+        }
+    }
+    
+    static BigDecimal sqrt(BigDecimal value, MathContext mc)
+    {
+        if (value.signum() < 0)
+            throw new ArithmeticException("Negative radicand");
+        if (value.signum() == 0)
+            return BigDecimal.ZERO;
+        
+        // Scale the unscaled value to 2 * (precision + 2) digits, with an even scale. A root with 
+        // precision + 2 digits, and a sticky digit if it is inexact, rounds correctly.
+        int k = 2 * (mc.getPrecision() + 2) - value.precision();
+        if (((value.scale() + k) & 1) != 0)
+            k++;
+        BigInteger n;
+        boolean exact = true;
+        if (k >= 0)
+            n = value.unscaledValue().multiply(BigInteger.TEN.pow(k));
+        else
+        {
+            BigInteger[] qr = value.unscaledValue().divideAndRemainder(BigInteger.TEN.pow(-k));
+            n = qr[0];
+            exact = qr[1].signum() == 0;
+        }
+        BigInteger root = isqrt(n);
+        int scale = (value.scale() + k) / 2;
+        // Like the Delphi code, exact roots lose their trailing zeros, down to half the scale of the 
+        // radicand.
+        if (exact && root.multiply(root).equals(n))
+            return removeTrailingZeros(new BigDecimal(root, scale).round(mc), value.scale() / 2);
+        return new BigDecimal(root.multiply(BigInteger.TEN).add(BigInteger.ONE), scale + 1).round(mc);
+    }
+    
+    // Binary splitting of the series sum(a(k) * p(n1) * ... * p(k) / (q(n1) * ... * q(k))), for k in 
+    // [n1, n2). Returns { P, Q, T }, where P and Q are the products of p(n) and q(n), and the sum 
+    // is T / Q. The operands stay balanced, so the fast multiplications of BigInteger are used.
+    static BigInteger[] splitSeries(int n1, int n2, IntFunction<BigInteger> a, IntFunction<BigInteger> p, IntFunction<BigInteger> q)
+    {
+        if (n2 - n1 == 1)
+        {
+            BigInteger pn = p.apply(n1);
+            return new BigInteger[] { pn, q.apply(n1), a.apply(n1).multiply(pn) };
+        }
+        int middle = (n1 + n2) >>> 1;
+        BigInteger[] left = splitSeries(n1, middle, a, p, q);
+        BigInteger[] right = splitSeries(middle, n2, a, p, q);
+        return new BigInteger[] 
+        { 
+            left[0].multiply(right[0]), 
+            left[1].multiply(right[1]), 
+            left[2].multiply(right[1]).add(left[0].multiply(right[2])) 
+        };
+    }
+    
+    static MathContext workContext(MathContext mc, int extraDigits)
+    {
+        return new MathContext(mc.getPrecision() + GUARD_DIGITS + extraDigits, RoundingMode.HALF_EVEN);
+    }
+    
+    // Chudnovsky series.
+    static BigDecimal pi(MathContext mc)
+    {
+        return piCache.computeIfAbsent(mc.getPrecision(), precision ->
+        {
+            MathContext wc = workContext(mc, 0);
+            int terms = wc.getPrecision() / 14 + 2;
+            BigInteger c3 = BigInteger.valueOf(640320).pow(3).divide(BigInteger.valueOf(24));
+            BigInteger[] pqt = splitSeries(1, terms, 
+                    k -> BigInteger.valueOf(13591409).add(BigInteger.valueOf(545140134).multiply(BigInteger.valueOf(k))),
+                    k -> BigInteger.valueOf(6 * k - 5).multiply(BigInteger.valueOf(2 * k - 1)).multiply(BigInteger.valueOf(6 * k - 1)).negate(),
+                    k -> BigInteger.valueOf(k).pow(3).multiply(c3));
+            BigDecimal numerator = sqrt(BigDecimal.valueOf(10005), wc).multiply(new BigDecimal(pqt[1].multiply(BigInteger.valueOf(426880))));
+            BigDecimal denominator = new BigDecimal(pqt[1].multiply(BigInteger.valueOf(13591409)).add(pqt[2]));
+            return numerator.divide(denominator, wc).round(mc);
+        });
+    }
+    
+    // acoth(x) = atanh(1 / x) = sum(1 / ((2k + 1) * x^(2k + 1))).
+    static BigDecimal acoth(int x, MathContext mc)
+    {
+        BigInteger xSquared = BigInteger.valueOf(x).pow(2);
+        int terms = (int)(mc.getPrecision() / (2 * Math.log10(x))) + 2;
+        BigInteger[] pqt = splitSeries(1, terms, k -> BigInteger.ONE, k -> BigInteger.valueOf(2 * k - 1), 
+                k -> BigInteger.valueOf(2 * k + 1).multiply(xSquared));
+        BigDecimal sum = new BigDecimal(pqt[1].add(pqt[2])).divide(new BigDecimal(pqt[1]), mc);
+        return sum.divide(BigDecimal.valueOf(x), mc);
+    }
+    
+    // ln(2) = 18 acoth(26) - 2 acoth(4801) + 8 acoth(8749).
+    static BigDecimal ln2(MathContext mc)
+    {
+        return ln2Cache.computeIfAbsent(mc.getPrecision(), precision ->
+        {
+            MathContext wc = workContext(mc, 0);
+            return acoth(26, wc).multiply(BigDecimal.valueOf(18))
+                    .subtract(acoth(4801, wc).multiply(BigDecimal.valueOf(2)))
+                    .add(acoth(8749, wc).multiply(BigDecimal.valueOf(8))).round(mc);
+        });
+    }
+    
+    // ln(10) = 3 ln(2) + ln(5 / 4) = 3 ln(2) + 2 acoth(9).
+    static BigDecimal ln10(MathContext mc)
+    {
+        return ln10Cache.computeIfAbsent(mc.getPrecision(), precision ->
+        {
+            MathContext wc = workContext(mc, 0);
+            return ln2(wc).multiply(BigDecimal.valueOf(3)).add(acoth(9, wc).multiply(BigDecimal.valueOf(2))).round(mc);
+        });
+    }
+    
+    // exp(x) = exp(x / 2^m)^(2^m). For the reduced argument, the bit-burst algorithm is used: the 
+    // digits of the argument are split into pieces of 4, 4, 8, 16, 32, ... digits, and the exp of
+    // each piece is calculated by binary splitting of the Taylor series. The product of these is
+    // exp of the reduced argument.
+    static BigDecimal exp(BigDecimal x, MathContext mc)
+    {
+        if (x.signum() == 0)
+            return BigDecimal.ONE;
+        
+        int m = Math.max(0, x.abs().toBigInteger().bitLength() + 1);
+        MathContext wc = workContext(mc, (int)(m * 0.302) + 1);
+        BigDecimal reduced = x.divide(new BigDecimal(BigInteger.ONE.shiftLeft(m)), wc);
+        
+        BigInteger digits = reduced.abs().setScale(wc.getPrecision(), RoundingMode.HALF_EVEN).unscaledValue();
+        BigDecimal result = BigDecimal.ONE;
+        for (int start = 0, end = 4; start < wc.getPrecision(); start = end, end = Math.min(2 * end, wc.getPrecision()))
+        {
+            BigInteger piece = digits.divide(BigInteger.TEN.pow(wc.getPrecision() - end)).mod(BigInteger.TEN.pow(end - start));
+            if (piece.signum() != 0)
+                result = result.multiply(expPiece(reduced.signum() < 0 ? piece.negate() : piece, end, wc), wc);
+        }
+        for (int i = 0; i < m; i++)
+            result = result.multiply(result, wc);
+        return result.round(mc);
+    }
+    
+    // exp(a / 10^e), for |a / 10^e| < 1.
+    static BigDecimal expPiece(BigInteger a, int e, MathContext mc)
+    {
+        BigInteger power = BigInteger.TEN.pow(e);
+        
+        // Number of terms, so that the last term is below 10^-precision. a can be too large for a
+        // double, so its bit length is used as (upper) estimate of its magnitude.
+        double log10Ratio = a.abs().bitLength() * Math.log10(2.0) - e;
+        double log10Term = 0.0;
+        int terms = 1;
+        while (log10Term > -mc.getPrecision() - 2)
+        {
+            terms++;
+            log10Term += log10Ratio - Math.log10(terms);
+        }
+        
+        BigInteger[] pqt = splitSeries(1, terms + 1, k -> BigInteger.ONE, k -> a, k -> power.multiply(BigInteger.valueOf(k)));
+        return new BigDecimal(pqt[1].add(pqt[2])).divide(new BigDecimal(pqt[1]), mc);
+    }
+    
+    // ln(x) = pi / (2 AGM(1, 4 / s)) - m ln(2), where s = x * 2^m > 2^(bits / 2). The results are 
+    // cached too, as Pow needs the same logarithms for several exponents.
+    static BigDecimal ln(BigDecimal x, MathContext mc)
+    {
+        if (x.signum() <= 0)
+            throw new ArithmeticException("Non-positive argument");
+        if (x.compareTo(BigDecimal.ONE) == 0)
+            return BigDecimal.ZERO;
+        return lnCache.computeIfAbsent(x.toString() + "/" + mc.getPrecision(), key -> lnAGM(x, mc));
+    }
+    
+    static BigDecimal lnAGM(BigDecimal x, MathContext mc)
+    {
+        // The result is the difference of two values of about m * ln(2), so for x near 1, more
+        // digits are required.
+        BigDecimal distance = x.subtract(BigDecimal.ONE);
+        int cancelled = Math.max(0, distance.scale() - distance.precision() + 1);
+        MathContext wc = workContext(mc, cancelled + 10);
+        int bits = (int)(wc.getPrecision() * 3.33) + 10;
+        int log2x = (int)((x.unscaledValue().bitLength() - x.scale() * 3.3219280948873623));
+        int m = bits / 2 - log2x;
+        
+        BigDecimal s = m >= 0 ? x.multiply(new BigDecimal(BigInteger.ONE.shiftLeft(m))) 
+                              : x.divide(new BigDecimal(BigInteger.ONE.shiftLeft(-m)), wc);
+        BigDecimal a = BigDecimal.ONE;
+        BigDecimal b = BigDecimal.valueOf(4).divide(s, wc);
+        BigDecimal epsilon = BigDecimal.ONE.movePointLeft(wc.getPrecision());
+        while (a.subtract(b).abs().compareTo(epsilon) > 0)
+        {
+            BigDecimal nextA = a.add(b).divide(BigDecimal.valueOf(2), wc);
+            b = sqrt(a.multiply(b, wc), wc);
+            a = nextA;
+        }
+        BigDecimal result = pi(wc).divide(a.multiply(BigDecimal.valueOf(2)), wc);
+        return result.subtract(ln2(wc).multiply(BigDecimal.valueOf(m)), wc).round(mc);
+    }
+    
+    // x^y. Integer exponents use BigDecimal.pow(), others exp(y * ln(x)), for positive x.
+    static BigDecimal pow(BigDecimal x, BigDecimal y, MathContext mc)
+    {
+        if (y.signum() == 0)
+            return BigDecimal.ONE;
+        if (x.signum() == 0)
+        {
+            if (y.signum() < 0)
+                throw new ArithmeticException("Division by zero");
+            return BigDecimal.ZERO;
+        }
+        
+        boolean isInteger = y.stripTrailingZeros().scale() <= 0;
+        if (isInteger && y.abs().compareTo(BigDecimal.valueOf(999999999)) <= 0)
+            return x.pow(y.intValueExact(), workContext(mc, 10)).round(mc);
+        if (x.signum() < 0)
+            throw new ArithmeticException("Negative base");
+        
+        // The absolute error of y * ln(x) is the relative error of the result, so more digits
+        // are needed for large y * ln(x). At least 10 more digits are used for all y, so ln(x) 
+        // usually comes from the cache.
+        double lnx = Math.log(x.round(MathContext.DECIMAL64).doubleValue());
+        if (Double.isInfinite(lnx))
+            lnx = (x.precision() - x.scale()) * Math.log(10.0);
+        int magnitude = Math.max(10, (int)Math.log10(Math.abs(y.doubleValue() * lnx) + 1.0) + 2);
+        BigDecimal product = y.multiply(ln(x, workContext(mc, magnitude)));
+        return exp(product, workContext(mc, magnitude)).round(mc);
+    }
+    
+    interface MathFunction
+    {
+        BigDecimal apply(BigDecimal x, MathContext mc);
+    }
+    
+    static TestResult mathResult(MathFunction f, BigDecimal x, MathContext mc)
+    {
+        TestResult tr = new TestResult();
+        try
+        {
+            tr.val = f.apply(x, mc).toString();
+            tr.info = TestResultInfo.Ok;
+        }
+        catch (ArithmeticException e)
+        {
+            tr.val = e.getMessage();
+            tr.info = e.getMessage().equals("Division by zero") ? TestResultInfo.DivideByZero : TestResultInfo.ArgumentRange;
+        }
+        return tr;
+    }
+    
+    static void generateMathResults(BufferedWriter bw) throws IOException
+    {
+        int precisions = MATH_PRECISIONS.length;
+        int count = MATH_ARGUMENTS.length;
+        int exponents = POW_EXPONENTS.length;
+        BigDecimal[] mathArguments = new BigDecimal[count];
+        BigDecimal[] powExponents = new BigDecimal[exponents];
+        MathContext[] contexts = new MathContext[precisions];
+        
+        for (int i = 0; i < count; i++)
+            mathArguments[i] = new BigDecimal(MATH_ARGUMENTS[i]);
+        for (int i = 0; i < exponents; i++)
+            powExponents[i] = new BigDecimal(POW_EXPONENTS[i]);
+        for (int i = 0; i < precisions; i++)
+            contexts[i] = new MathContext(MATH_PRECISIONS[i], RoundingMode.HALF_EVEN);
+        
+        println("Generating math results...");
+        TestResult[][] constants = new TestResult[3][precisions];
+        MathFunction[] constantFunctions = { (x, mc) -> pi(mc), (x, mc) -> ln2(mc), (x, mc) -> ln10(mc) };
+        IntStream.range(0, 3 * precisions).parallel().forEach(n -> 
+            constants[n / precisions][n % precisions] = mathResult(constantFunctions[n / precisions], null, contexts[n % precisions]));
+        
+        TestResult[][] results = new TestResult[3][precisions * count];
+        MathFunction[] functions = { BigDecimalTestDataGenerator::sqrt, BigDecimalTestDataGenerator::exp, BigDecimalTestDataGenerator::ln };
+        IntStream.range(0, 3 * precisions * count).parallel().forEach(n -> 
+        {
+            int f = n / (precisions * count);
+            int cell = n % (precisions * count);
+            results[f][cell] = mathResult(functions[f], mathArguments[cell % count], contexts[cell / count]);
+        });
+        
+        TestResult[] powResults = new TestResult[precisions * count * exponents];
+        IntStream.range(0, powResults.length).parallel().forEach(n -> 
+            powResults[n] = mathResult((x, mc) -> pow(x, powExponents[n % exponents], mc), mathArguments[n / exponents % count], 
+                    contexts[n / (exponents * count)]));
+        
+        println(bw, "const");
+        println(bw, "  MathPrecisionCount = %d;", precisions);
+        println(bw, "  MathArgumentCount = %d;", count);
+        println(bw, "  PowExponentCount = %d;", exponents);
+        println(bw);
+        println(bw, "  MathPrecisions: array[0..MathPrecisionCount - 1] of Integer = (%s);", 
+                Arrays.toString(MATH_PRECISIONS).replaceAll("[\\[\\]]", ""));
+        println(bw);
+        writeMathStrings(bw, "MathArguments", "MathArgumentCount", MATH_ARGUMENTS);
+        writeMathStrings(bw, "PowExponents", "PowExponentCount", POW_EXPONENTS);
+        
+        String[] constantNames = { "Pi", "Ln2", "Ln10" };
+        for (int c = 0; c < 3; c++)
+        {
+            println(bw, "  %sResults: array[0..MathPrecisionCount - 1] of TTestResult =", constantNames[c]);
+            println(bw, "  (");
+            for (int i = 0; i < precisions; i++)
+                formatResult(bw, constants[c][i], i == precisions - 1, String.format("%s, %d digits", constantNames[c], MATH_PRECISIONS[i]));
+            println(bw, "  );");
+            println(bw);
+        }
+        
+        String[] functionNames = { "Sqrt", "Exp", "Ln" };
+        for (int f = 0; f < 3; f++)
+        {
+            println(bw, "  %sResults: array[0..MathPrecisionCount * MathArgumentCount - 1] of TTestResult =", functionNames[f]);
+            println(bw, "  (");
+            for (int n = 0; n < precisions * count; n++)
+                formatResult(bw, results[f][n], n == precisions * count - 1, 
+                        String.format("%s(MathArguments[%d]), %d digits", functionNames[f], n % count, MATH_PRECISIONS[n / count]));
+            println(bw, "  );");
+            println(bw);
+        }
+        
+        println(bw, "  PowResults: array[0..MathPrecisionCount * MathArgumentCount * PowExponentCount - 1] of TTestResult =");
+        println(bw, "  (");
+        for (int n = 0; n < powResults.length; n++)
+            formatResult(bw, powResults[n], n == powResults.length - 1, String.format("Pow(MathArguments[%d], PowExponents[%d]), %d digits", 
+                    n / exponents % count, n % exponents, MATH_PRECISIONS[n / (exponents * count)]));
+        println(bw, "  );");
+        println(bw);
+    }
+    
+    static void writeMathStrings(BufferedWriter bw, String arrayName, String countName, String[] values) throws IOException
+    {
+        println(bw, "  %s: array[0..%s - 1] of string =", arrayName, countName);
+        println(bw, "  (");
+        for (int i = 0; i < values.length; ++i)
+            println(bw, "    %-36s // %d", "'" + values[i] + ((i < values.length - 1) ? "'," : "'"), i);
+        println(bw, "  );");
+        println(bw);
+    }
+    
+    static final int[] MATH_PRECISIONS = { 64, 256, 1000, 10000 };
+    static final String[] MATH_ARGUMENTS = { "0.5", "1", "2", "3", "10", "0.001", "1.000001", "123.456", "-7.25" };
+    static final String[] POW_EXPONENTS = { "2", "-3", "0.5", "1.5", "3.14159" };
+    static final int GUARD_DIGITS = 20;
+    static final ConcurrentHashMap<Integer, BigDecimal> piCache = new ConcurrentHashMap<>();
+    static final ConcurrentHashMap<Integer, BigDecimal> ln2Cache = new ConcurrentHashMap<>();
+    static final ConcurrentHashMap<Integer, BigDecimal> ln10Cache = new ConcurrentHashMap<>();
+    static final ConcurrentHashMap<String, BigDecimal> lnCache = new ConcurrentHashMap<>();
     
     static BigDecimal[] arguments;
 
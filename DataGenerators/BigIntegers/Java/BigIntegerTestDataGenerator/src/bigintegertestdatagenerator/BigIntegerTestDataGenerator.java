@@ -46,14 +46,26 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BinaryOperator;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 public class BigIntegerTestDataGenerator 
 {
@@ -83,6 +95,112 @@ public class BigIntegerTestDataGenerator
         }
     }
     
+    // Column store for large result tables: the info of each result in a byte[], and the values 
+    // in one Latin-1 byte buffer, with the offset (high 32 bits) and length (low 32 bits) of each 
+    // value in a long[]. Results are set by index, and several indices can share a value.
+    static final class ResultStore
+    {
+        static final TestResultInfo[] INFOS = TestResultInfo.values();
+        
+        // Largest byte[] most VMs can allocate.
+        static final int MAX_CHARS = Integer.MAX_VALUE - 8;
+        
+        final byte[] infos;
+        final long[] spans;
+        byte[] chars;
+        int length;
+        
+        ResultStore(int count)
+        {
+            infos = new byte[count];
+            spans = new long[count];
+            chars = new byte[(int)Math.min(16L * count + 16, MAX_CHARS)];
+        }
+        
+        int size()
+        {
+            return infos.length;
+        }
+        
+        void set(int index, TestResultInfo info, String val)
+        {
+            int valLength = val.length();
+            long needed = (long)length + valLength;
+            if (needed > MAX_CHARS)
+                throw new IllegalStateException("Result store is full: " + needed + " bytes needed");
+            if (needed > chars.length)
+                chars = Arrays.copyOf(chars, (int)Math.min(Math.max(2L * chars.length, needed), MAX_CHARS));
+            for (int k = 0; k < valLength; k++)
+            {
+                char c = val.charAt(k);
+                if (c > 0xFF)
+                    throw new IllegalArgumentException("Result is not Latin-1: " + val);
+                chars[length + k] = (byte)c;
+            }
+            infos[index] = (byte)info.ordinal();
+            spans[index] = ((long)length << 32) | valLength;
+            length += valLength;
+        }
+        
+        // Uses the result at index from for index to as well, e.g. for mirrored pairs.
+        void copy(int from, int to)
+        {
+            infos[to] = infos[from];
+            spans[to] = spans[from];
+        }
+        
+        TestResultInfo info(int index)
+        {
+            return INFOS[infos[index]];
+        }
+        
+        String val(int index)
+        {
+            long span = spans[index];
+            return new String(chars, (int)(span >>> 32), (int)span, StandardCharsets.ISO_8859_1);
+        }
+    }
+    
+    // The signs of values[i].compareTo(values[j]), packed in 2 bits per pair (0 = 0, 1 = 1, 
+    // 3 = -1). Only the upper triangle (i <= j) is stored, and each of its rows starts at a new 
+    // long, so the rows can be filled in parallel without sharing a long. The lower triangle 
+    // is the negated upper triangle.
+    static final class SignMatrix
+    {
+        final int count;
+        final long[] rowStarts;
+        final long[] bits;
+
+        <T extends Comparable<? super T>> SignMatrix(T[] values)
+        {
+            count = values.length;
+            rowStarts = new long[count + 1];
+            for (int i = 0; i < count; i++)
+                rowStarts[i + 1] = rowStarts[i] + (count - i + 31) / 32;
+            if (rowStarts[count] > Integer.MAX_VALUE - 8)
+                throw new IllegalArgumentException("Too many values for a sign matrix: " + count);
+            bits = new long[(int)rowStarts[count]];
+
+            IntStream.range(0, count).parallel().forEach(i ->
+            {
+                int start = (int)rowStarts[i];
+                for (int j = i; j < count; j++)
+                {
+                    long sign = Integer.signum(values[i].compareTo(values[j])) & 3;
+                    bits[start + (j - i) / 32] |= sign << (2 * ((j - i) % 32));
+                }
+            });
+        }
+
+        int get(int i, int j)
+        {
+            if (i > j)
+                return -get(j, i);
+            long word = bits[(int)rowStarts[i] + (j - i) / 32];
+            return ((int)(word >>> (2 * ((j - i) % 32))) << 30) >> 30;
+        }
+    }
+    
     public static BufferedWriter newWriter(String fileName) throws IOException
     {
         File outFile = new File("..\\..\\..\\..\\Tests\\BigIntegers\\" + fileName);
@@ -93,10 +211,37 @@ public class BigIntegerTestDataGenerator
         return bw;
     }
     
+    // Command line options. The stress tiers are not generated by default, because they take
+    // a while and produce large files. Use -stress to generate all of them, or the option of a
+    // single tier (e.g. -modpow) to generate only that one. -bench runs the benchmarks.
+    static ArrayList<String> options = new ArrayList<>();
+    
+    static boolean isOptionSet(String option)
+    {
+        return options.contains(option);
+    }
+    
+    static boolean isTierSet(String tier)
+    {
+        return isOptionSet("-stress") || isOptionSet(tier);
+    }
+    
+    // Returns the value of an option like -limbs=64,256, or defaultValue if it is not set.
+    static String getOptionValue(String option, String defaultValue)
+    {
+        for (String s: options)
+            if (s.startsWith(option + "="))
+                return s.substring(option.length() + 1);
+        return defaultValue;
+    }
+    
     public static void main(String[] args) 
     {
         BufferedWriter bw;
         
+        for (String arg: args)
+            options.add(arg.toLowerCase(Locale.ROOT));
+        
         writeln("Test data generator for Velthuis.BigIntegers.pas");
         writeln("------------------------------------------------");
         writeln();
@@ -110,6 +255,13 @@ public class BigIntegerTestDataGenerator
         writeln();
         writeln("which are used by the Delphi test programs for Velthuis.BigIntegers.pas.");
         writeln();
+        writeln("Options: -stress (all stress tiers), -modpow (ModPow stress tier), -factorial (large");
+        writeln("factorials), -large (large operands), -limbs=n,n,... (sizes of the large operands),");
+        writeln("-primes (primality tier), -invariants (hashes of random cases), -cases=n (number of");
+        writeln("random cases), -operands (write their operands too), -parse (TryParse corpus),");
+        writeln("-parsecases=n (number of parse cases), -doubles (double boundary sweep), -bench");
+        writeln("(benchmarks).");
+        writeln();
         writeln("You'll see a list of errors. This is expected. The generated errors are");
         writeln("registered and written to the test data include files generated by this program.");
         writeln();
@@ -154,6 +306,8 @@ public class BigIntegerTestDataGenerator
                 generateSetBitResults(bw);
                 generateClearBitResults(bw);
                 generateFlipBitResults(bw);
+                generateLargeBitResults(bw);
+                generateLargeShiftResults(bw);
             }
             finally
             {
@@ -172,6 +326,8 @@ public class BigIntegerTestDataGenerator
                 generateMinResults(bw);               
                 generateMaxResults(bw);
                 generateFactorialResults(bw);
+                generateSqrtResults(bw);
+                generateNthRootResults(bw);
             }
             finally
             {
@@ -195,6 +351,110 @@ public class BigIntegerTestDataGenerator
             {
                 bw.close();
             }
+            
+            if (isTierSet("-modpow"))
+            {
+                bw = newWriter("BigIntegerModPowResults.inc");
+                try
+                {
+                    generateModPowStressResults(bw);
+                }
+                finally
+                {
+                    bw.close();
+                }
+            }
+            
+            if (isTierSet("-factorial"))
+            {
+                bw = newWriter("BigIntegerFactorialResults.inc");
+                try
+                {
+                    generateLargeFactorialResults(bw);
+                }
+                finally
+                {
+                    bw.close();
+                }
+                
+                bw = newWriter("BigIntegerFactorialResults.txt");
+                try
+                {
+                    generateHugeFactorialResults(bw);
+                }
+                finally
+                {
+                    bw.close();
+                }
+            }
+            
+            if (isTierSet("-large"))
+            {
+                bw = newWriter("BigIntegerLargeResults.txt");
+                try
+                {
+                    generateLargeResults(bw);
+                }
+                finally
+                {
+                    bw.close();
+                }
+            }
+            
+            if (isTierSet("-primes"))
+            {
+                bw = newWriter("BigIntegerPrimeResults.inc");
+                try
+                {
+                    generatePrimeResults(bw);
+                }
+                finally
+                {
+                    bw.close();
+                }
+            }
+            
+            if (isTierSet("-invariants"))
+            {
+                bw = newWriter("BigIntegerInvariantResults.txt");
+                try
+                {
+                    generateInvariantResults(bw);
+                }
+                finally
+                {
+                    bw.close();
+                }
+            }
+            
+            if (isTierSet("-parse"))
+            {
+                bw = newWriter("BigIntegerParseResults.txt");
+                try
+                {
+                    generateParseResults(bw);
+                }
+                finally
+                {
+                    bw.close();
+                }
+            }
+            
+            if (isTierSet("-doubles"))
+            {
+                bw = newWriter("BigIntegerDoubleResults.txt");
+                try
+                {
+                    generateDoubleSweepResults(bw);
+                }
+                finally
+                {
+                    bw.close();
+                }
+            }
+            
+            if (isOptionSet("-bench"))
+                benchmarkModPow();
         }
         catch (IOException e)
         {
@@ -290,8 +550,13 @@ public class BigIntegerTestDataGenerator
 
     static void formatResult(BufferedWriter bw, TestResult result, boolean isLast, String comment) throws IOException
     {
-        String info = String.format("tri%s;", result.info);
-        String[] values = splitString(result.val, DEFAULT_STRING_WIDTH);
+        formatResult(bw, result.info, result.val, isLast, comment);
+    }
+    
+    static void formatResult(BufferedWriter bw, TestResultInfo resultInfo, String val, boolean isLast, String comment) throws IOException
+    {
+        String info = String.format("tri%s;", resultInfo);
+        String[] values = splitString(val, DEFAULT_STRING_WIDTH);
 
         for (int k = 0; k < values.length; k++)
         {
@@ -353,7 +618,12 @@ public class BigIntegerTestDataGenerator
         writeln(bw);
     }
 
-    static void writeBinaryResults(BufferedWriter bw, String ArrayName, TestResult[] results, int count, String op) throws IOException
+    static void writeBinaryResults(BufferedWriter bw, String ArrayName, ResultStore results, int count, String op) throws IOException
+    {
+        writeBinaryResults(bw, ArrayName, results::info, results::val, count, op);
+    }
+    
+    static void writeBinaryResults(BufferedWriter bw, String ArrayName, IntFunction<TestResultInfo> infos, IntFunction<String> vals, int count, String op) throws IOException
     {
         // This routine goes out of its way to nicely indent and format the strings into 40 character portions.
         // There may be a better way to achieve this, but hey, it works.
@@ -365,13 +635,73 @@ public class BigIntegerTestDataGenerator
         {
             for (int j = 0; j < count; ++j, ++n)
             {
-                formatResult(bw, results[n], (i == count - 1 && j == count - 1), String.format("%4d: Arguments[%d] %s Arguments[%d]", n, i, op, j));
+                formatResult(bw, infos.apply(n), vals.apply(n), (i == count - 1 && j == count - 1), String.format("%4d: Arguments[%d] %s Arguments[%d]", n, i, op, j));
             }
         }
         writeln(bw, "  );");
         writeln(bw);
     }
     
+    // The arguments, parsed only once.
+    static BigInteger[] arguments;
+    
+    static synchronized BigInteger[] getArguments()
+    {
+        if (arguments == null)
+        {
+            arguments = new BigInteger[ARGUMENTS.length];
+            for (int i = 0; i < ARGUMENTS.length; i++)
+                arguments[i] = new BigInteger(ARGUMENTS[i]);
+        }
+        return arguments;
+    }
+    
+    // Returns the results of op for all pairs of arguments, in the order of writeBinaryResults. For 
+    // a commutative op, only the upper triangle (i <= j) is calculated, and each result is used for 
+    // the mirrored pair (j, i) as well.
+    static ResultStore computeBinaryResults(BinaryOperator<BigInteger> op, boolean commutative)
+    {
+        BigInteger[] args = getArguments();
+        int count = args.length;
+        ResultStore results = new ResultStore(count * count);
+        
+        for (int i = 0; i < count; i++)
+            for (int j = commutative ? i : 0; j < count; j++)
+            {
+                results.set(i * count + j, TestResultInfo.Ok, op.apply(args[i], args[j]).toString());
+                if (commutative)
+                    results.copy(i * count + j, j * count + i);
+            }
+        return results;
+    }
+    
+    // The signs of Arguments[i].compareTo(Arguments[j]), calculated only once and shared by the 
+    // comparison, Min and Max results.
+    static SignMatrix comparisons;
+    
+    static synchronized SignMatrix getComparisons()
+    {
+        if (comparisons == null)
+            comparisons = new SignMatrix(getArguments());
+        return comparisons;
+    }
+    
+    // Min and max are one of the arguments, so only the index of that argument is stored for 
+    // each pair, and its decimal string is reused.
+    static int[] computeMinMaxResults(boolean max)
+    {
+        SignMatrix signs = getComparisons();
+        int count = ARGUMENTS.length;
+        int[] results = new int[count * count];
+        
+        for (int n = 0; n < results.length; n++)
+        {
+            int i = n / count, j = n % count;
+            results[n] = (signs.get(i, j) > 0) == max ? i : j;
+        }
+        return results;
+    }
+    
     static void writeShiftResults(BufferedWriter bw, String ArrayName, TestResult[] results, int count, int shiftCount, String op) throws IOException
     {
         // This routine goes out of its way to nicely indent and format the strings into 40 character portions.
@@ -509,121 +839,47 @@ public class BigIntegerTestDataGenerator
     
     static void generateAddResults(BufferedWriter bw) throws IOException
     {
-        String[] data = ARGUMENTS;
-        int count = data.length;
-        TestResult[] results = new TestResult[count * count];
-
-        int n = 0;
-
-        for (int i = 0; i < count; ++i)
-        {
-            BigInteger d1 = new BigInteger(data[i]);
-            for (int j = 0; j < count; ++j, ++n)
-            {
-                // Test operation.
-                BigInteger d2 = new BigInteger(data[j]);
-                TestResult tr = new TestResult();
-                tr.info = TestResultInfo.Ok;
-                BigInteger d3 = d1.add(d2);
-
-                tr.val = d3.toString();
-                results[n] = tr;
-            }
-        }
-        
-        writeBinaryResults(bw, "AddResults", results, count, "+");
+        writeBinaryResults(bw, "AddResults", computeBinaryResults(BigInteger::add, true), ARGUMENTS.length, "+");
     }
 
     static void generateSubtractResults(BufferedWriter bw) throws IOException
     {
-        String[] data = ARGUMENTS;
-        int count = data.length;
-        TestResult[] results = new TestResult[count * count];
-
-        int n = 0;
-
-        for (int i = 0; i < count; ++i)
-        {
-            BigInteger d1 = new BigInteger(data[i]);
-            for (int j = 0; j < count; ++j, ++n)
-            {
-                // Test operation.
-                BigInteger d2 = new BigInteger(data[j]);
-                TestResult tr = new TestResult();
-                tr.info = TestResultInfo.Ok;
-                BigInteger d3 = d1.subtract(d2);
-
-                tr.val = d3.toString();
-                results[n] = tr;
-            }
-        }
-        
-        writeBinaryResults(bw, "SubtractResults", results, count, "-");
+        writeBinaryResults(bw, "SubtractResults", computeBinaryResults(BigInteger::subtract, false), ARGUMENTS.length, "-");
     }
     
     static void generateMultiplyResults(BufferedWriter bw) throws IOException
     {
-        String[] data = ARGUMENTS;
-        int count = data.length;
-        TestResult[] results = new TestResult[count * count];
-
-        int n = 0;
-
-        for (int i = 0; i < count; ++i)
-        {
-            BigInteger d1 = new BigInteger(data[i]);
-            for (int j = 0; j < count; ++j, ++n)
-            {
-                // Test operation.
-                BigInteger d2 = new BigInteger(data[j]);
-                TestResult tr = new TestResult();
-                tr.info = TestResultInfo.Ok;
-                BigInteger d3 = d1.multiply(d2);
-
-                tr.val = d3.toString();
-                results[n] = tr;
-            }
-        }
-        
-        writeBinaryResults(bw, "MultiplyResults", results, count, "*");
+        writeBinaryResults(bw, "MultiplyResults", computeBinaryResults(BigInteger::multiply, true), ARGUMENTS.length, "*");
     }
 
     static void generateDivisionResults(BufferedWriter bw) throws IOException
     {
-        String[] data = ARGUMENTS;
+        BigInteger[] data = getArguments();
         int count = data.length;
-        TestResult[] results = new TestResult[count * count];
-        TestResult tr;
+        ResultStore results = new ResultStore(count * count);
 
         int n = 0;
 
         for (int i = 0; i < count; ++i)
         {
-            BigInteger d1 = new BigInteger(data[i]);
+            BigInteger d1 = data[i];
             for (int j = 0; j < count; ++j, ++n)
             {
                 // Test operation.
-                BigInteger d2 = new BigInteger(data[j]);
-                BigInteger d3;
+                BigInteger d2 = data[j];
 
-                tr = new TestResult();
-                tr.info = TestResultInfo.Ok;
                 try
                 {
-                    d3 = d1.divide(d2);
-                    tr.val = d3.toString();
+                    results.set(n, TestResultInfo.Ok, d1.divide(d2).toString());
                 }
                 catch (ArithmeticException e)
                 {
-                    tr.info = TestResultInfo.DivideByZero;
-                    tr.val = e.getMessage();
+                    results.set(n, TestResultInfo.DivideByZero, e.getMessage());
                     writeln("(%02d,%02d) -- Division error: %s", i, j, e.getMessage());
                 }
 
                 // No need to do the reverse, right? e.g. d4 = d3 * d2 + d1 % d2, check if d4 = d1, and if not, reverseDivision
                 // This could be useful for DivMod, but not for this routine.
-
-                results[n] = tr;
             }
         }
 
@@ -632,40 +888,32 @@ public class BigIntegerTestDataGenerator
 
     static void generateModulusResults(BufferedWriter bw) throws IOException
     {
-        String[] data = ARGUMENTS;
+        BigInteger[] data = getArguments();
         int count = data.length;
-        TestResult[] results = new TestResult[count * count];
-        TestResult tr;
+        ResultStore results = new ResultStore(count * count);
 
         int n = 0;
 
         for (int i = 0; i < count; ++i)
         {
-            BigInteger d1 = new BigInteger(data[i]);
+            BigInteger d1 = data[i];
             for (int j = 0; j < count; ++j, ++n)
             {
                 // Test operation.
-                BigInteger d2 = new BigInteger(data[j]);
-                BigInteger d3;
+                BigInteger d2 = data[j];
 
-                tr = new TestResult();
-                tr.info = TestResultInfo.Ok;
                 try
                 {
-                    d3 = d1.remainder(d2);
-                    tr.val = d3.toString();
+                    results.set(n, TestResultInfo.Ok, d1.remainder(d2).toString());
                 }
                 catch (ArithmeticException e)
                 {
-                    tr.info = TestResultInfo.DivideByZero;
-                    tr.val = e.getMessage();
+                    results.set(n, TestResultInfo.DivideByZero, e.getMessage());
                     writeln("(%02d,%02d) -- Division error: %s", i, j, e.getMessage());
                 }
 
                 // No need to do the reverse, right? e.g. d4 = d3 * d2 + d1 % d2, check if d4 = d1, and if not, reverseDivision
                 // This could be useful for DivMod, but not for this routine.
-
-                results[n] = tr;
             }
         }
 
@@ -674,86 +922,51 @@ public class BigIntegerTestDataGenerator
 
     static void generateBitwiseAndResults(BufferedWriter bw) throws IOException
     {
-        String[] data = ARGUMENTS;
-        int count = data.length;
-        TestResult[] results = new TestResult[count * count];
+        writeBinaryResults(bw, "BitwiseAndResults", computeBinaryResults(BigInteger::and, true), ARGUMENTS.length, "and");
+    }
 
-        int n = 0;
+    static void generateBitwiseOrResults(BufferedWriter bw) throws IOException
+    {
+        writeBinaryResults(bw, "BitwiseOrResults", computeBinaryResults(BigInteger::or, true), ARGUMENTS.length, "or");
+    }
 
-        for (int i = 0; i < count; ++i)
+    static void generateBitwiseXorResults(BufferedWriter bw) throws IOException
+    {
+        writeBinaryResults(bw, "BitwiseXorResults", computeBinaryResults(BigInteger::xor, true), ARGUMENTS.length, "xor");
+    }
+    
+    static void generateSetBitResults(BufferedWriter bw) throws IOException
+    {
+        String[] arguments = ARGUMENTS;
+        int count = arguments.length;
+        int[] bits = BITS;
+        int bitCount = bits.length;
+        int n = 0;
+        
+        writeln(bw, "  SetBitResultCount = %d;", count * bitCount);
+        writeln(bw, "  SetBitResults: array[0.. SetBitResultCount - 1] of TTestResult =");
+        writeln(bw, "  (");
+        
+        for (int i = 0; i < count; i++)
         {
-            BigInteger d1 = new BigInteger(data[i]);
-            for (int j = 0; j < count; ++j, ++n)
+            BigInteger d1 = new BigInteger(arguments[i]);
+            for (int j = 0; j < bitCount; j++, n++)
             {
-                // Test operation.
-                BigInteger d2 = new BigInteger(data[j]);
+                int bit = bits[j];
                 TestResult tr = new TestResult();
+                BigInteger d2 = d1.setBit(bit);
                 tr.info = TestResultInfo.Ok;
-                BigInteger d3 = d1.and(d2);
-
-                tr.val = d3.toString();
-                results[n] = tr;
+                tr.val = d2.toString();
+        
+                formatResult(bw, tr, n == (count * bitCount - 1), String.format("Arguments[%d].SetBit(%d)", i, bit));
             }
         }
-        
-        writeBinaryResults(bw, "BitwiseAndResults", results, count, "and");
+    
+        writeln(bw, "  );");
+        writeln(bw);
     }
 
-    static void generateBitwiseOrResults(BufferedWriter bw) throws IOException
-    {
-        String[] data = ARGUMENTS;
-        int count = data.length;
-        TestResult[] results = new TestResult[count * count];
-
-        int n = 0;
-
-        for (int i = 0; i < count; ++i)
-        {
-            BigInteger d1 = new BigInteger(data[i]);
-            for (int j = 0; j < count; ++j, ++n)
-            {
-                // Test operation.
-                BigInteger d2 = new BigInteger(data[j]);
-                TestResult tr = new TestResult();
-                tr.info = TestResultInfo.Ok;
-                BigInteger d3 = d1.or(d2);
-
-                tr.val = d3.toString();
-                results[n] = tr;
-            }
-        }
-        
-        writeBinaryResults(bw, "BitwiseOrResults", results, count, "or");
-    }
-
-    static void generateBitwiseXorResults(BufferedWriter bw) throws IOException
-    {
-        String[] data = ARGUMENTS;
-        int count = data.length;
-        TestResult[] results = new TestResult[count * count];
-
-        int n = 0;
-
-        for (int i = 0; i < count; ++i)
-        {
-            BigInteger d1 = new BigInteger(data[i]);
-            for (int j = 0; j < count; ++j, ++n)
-            {
-                // Test operation.
-                BigInteger d2 = new BigInteger(data[j]);
-                TestResult tr = new TestResult();
-                tr.info = TestResultInfo.Ok;
-                BigInteger d3 = d1.xor(d2);
-
-                tr.val = d3.toString();
-                results[n] = tr;
-            }
-        }
-        
-        writeBinaryResults(bw, "BitwiseXorResults", results, count, "xor");
-    }
-    
-    static void generateSetBitResults(BufferedWriter bw) throws IOException
+    static void generateClearBitResults(BufferedWriter bw) throws IOException
     {
         String[] arguments = ARGUMENTS;
         int count = arguments.length;
@@ -761,8 +974,8 @@ public class BigIntegerTestDataGenerator
         int bitCount = bits.length;
         int n = 0;
         
-        writeln(bw, "  SetBitResultCount = %d;", count * bitCount);
-        writeln(bw, "  SetBitResults: array[0.. SetBitResultCount - 1] of TTestResult =");
+        writeln(bw, "  ClearBitResultCount = %d;", count * bitCount);
+        writeln(bw, "  ClearBitResults: array[0..ClearBitResultCount - 1] of TTestResult =");
         writeln(bw, "  (");
         
         for (int i = 0; i < count; i++)
@@ -772,28 +985,29 @@ public class BigIntegerTestDataGenerator
             {
                 int bit = bits[j];
                 TestResult tr = new TestResult();
-                BigInteger d2 = d1.setBit(bit);
+                BigInteger d2 = d1.clearBit(bit);
                 tr.info = TestResultInfo.Ok;
                 tr.val = d2.toString();
         
-                formatResult(bw, tr, n == (count * bitCount - 1), String.format("Arguments[%d].SetBit(%d)", i, bit));
+                formatResult(bw, tr, n == (count * bitCount - 1), String.format("Arguments[%d].ClearBit(%d)", i, bit));
             }
         }
     
         writeln(bw, "  );");
         writeln(bw);
     }
-
-    static void generateClearBitResults(BufferedWriter bw) throws IOException
+    
+    static void generateFlipBitResults(BufferedWriter bw) throws IOException
     {
+        
         String[] arguments = ARGUMENTS;
         int count = arguments.length;
         int[] bits = BITS;
         int bitCount = bits.length;
         int n = 0;
         
-        writeln(bw, "  ClearBitResultCount = %d;", count * bitCount);
-        writeln(bw, "  ClearBitResults: array[0..ClearBitResultCount - 1] of TTestResult =");
+        writeln(bw, "  FlipBitResultCount = %d;", count * bitCount);
+        writeln(bw, "  FlipBitResults: array[0..FlipBitResultCount - 1] of TTestResult =");
         writeln(bw, "  (");
         
         for (int i = 0; i < count; i++)
@@ -803,48 +1017,117 @@ public class BigIntegerTestDataGenerator
             {
                 int bit = bits[j];
                 TestResult tr = new TestResult();
-                BigInteger d2 = d1.clearBit(bit);
+                BigInteger d2 = d1.flipBit(bit);
                 tr.info = TestResultInfo.Ok;
                 tr.val = d2.toString();
         
-                formatResult(bw, tr, n == (count * bitCount - 1), String.format("Arguments[%d].ClearBit(%d)", i, bit));
+                formatResult(bw, tr, n == (count * bitCount - 1), String.format("Arguments[%d].FlipBit(%d)", i, bit));
             }
         }
     
         writeln(bw, "  );");
         writeln(bw);
     }
-    
-    static void generateFlipBitResults(BufferedWriter bw) throws IOException
+
+    // SetBit, ClearBit and FlipBit at bit positions of up to 2^24. The results would have up to
+    // millions of digits, but each of them differs from its operand by -2^Bit, 0 or 2^Bit, in 
+    // two's complement, so only that delta is written.
+    static void generateLargeBitResults(BufferedWriter bw) throws IOException
     {
+        int count = ARGUMENTS.length;
+        int bitCount = LARGE_BITS.length;
+        int[][][] deltas = new int[3][count][bitCount];
         
-        String[] arguments = ARGUMENTS;
-        int count = arguments.length;
-        int[] bits = BITS;
-        int bitCount = bits.length;
-        int n = 0;
+        for (int i = 0; i < count; i++)
+        {
+            BigInteger d1 = new BigInteger(ARGUMENTS[i]);
+            for (int j = 0; j < bitCount; j++)
+            {
+                boolean isSet = d1.testBit(LARGE_BITS[j]);
+                deltas[0][i][j] = isSet ? 0 : 1;
+                deltas[1][i][j] = isSet ? -1 : 0;
+                deltas[2][i][j] = isSet ? -1 : 1;
+            }
+        }
         
-        writeln(bw, "  FlipBitResultCount = %d;", count * bitCount);
-        writeln(bw, "  FlipBitResults: array[0..FlipBitResultCount - 1] of TTestResult =");
+        writeln(bw, "  LargeBitCount = %d;", bitCount);
+        writeln(bw);
+        writeln(bw, "  LargeBits: array[0..LargeBitCount - 1] of Integer =");
         writeln(bw, "  (");
+        for (int j = 0; j < bitCount; j++)
+            writeln(bw, "    %d%s", LARGE_BITS[j], j == bitCount - 1 ? "" : ",");
+        writeln(bw, "  );");
+        writeln(bw);
         
-        for (int i = 0; i < count; i++)
+        String[] names = { "SetBit", "ClearBit", "FlipBit" };
+        for (int k = 0; k < names.length; k++)
         {
-            BigInteger d1 = new BigInteger(arguments[i]);
-            for (int j = 0; j < bitCount; j++, n++)
+            writeln(bw, "  // Arguments[I].%s(LargeBits[J]) = Arguments[I] + Large%sDeltas[I, J] * 2^LargeBits[J].", names[k], names[k]);
+            writeln(bw, "  Large%sDeltas: array[0..ArgumentCount - 1, 0..LargeBitCount - 1] of ShortInt =", names[k]);
+            writeln(bw, "  (");
+            for (int i = 0; i < count; i++)
             {
-                int bit = bits[j];
-                TestResult tr = new TestResult();
-                BigInteger d2 = d1.flipBit(bit);
-                tr.info = TestResultInfo.Ok;
-                tr.val = d2.toString();
-        
-                formatResult(bw, tr, n == (count * bitCount - 1), String.format("Arguments[%d].FlipBit(%d)", i, bit));
+                StringBuilder sb = new StringBuilder();
+                for (int j = 0; j < bitCount; j++)
+                    sb.append(j > 0 ? ", " : "").append(String.format("%2d", deltas[k][i][j]));
+                writeln(bw, "    (%s)%s // Arguments[%d]", sb, i == count - 1 ? " " : ",", i);
             }
+            writeln(bw, "  );");
+            writeln(bw);
         }
+    }
+    
+    // Returns value as its odd part and a shift count, i.e. value = Val shl Shift, in hexadecimal.
+    static String toShiftedHex(BigInteger value, long shift)
+    {
+        if (value.signum() == 0)
+            return "(Val: '$0'; Shift: 0)";
+        int zeroBits = value.getLowestSetBit();
+        return String.format("(Val: '%s'; Shift: %d)", toHex(value.shiftRight(zeroBits)), shift + zeroBits);
+    }
     
+    // Shifts by up to 2^24 bits. The left shifts are not done, as Arguments[I] shl N is simply
+    // the odd part of Arguments[I], shifted by N plus its trailing zero bits. The right shifts 
+    // are small, so they are done.
+    static void generateLargeShiftResults(BufferedWriter bw) throws IOException
+    {
+        int count = ARGUMENTS.length;
+        int shiftCount = LARGE_SHIFTS.length;
+        
+        writeln(bw, "type");
+        writeln(bw, "  TShiftedHexResult = record");
+        writeln(bw, "    Val: string;            // Odd part, in hexadecimal, e.g. '-$1F'.");
+        writeln(bw, "    Shift: Integer;         // Result is BigInteger(Val) shl Shift.");
+        writeln(bw, "  end;");
+        writeln(bw);
+        writeln(bw, "const");
+        writeln(bw, "  LargeShiftCount = %d;", shiftCount);
+        writeln(bw);
+        writeln(bw, "  LargeShifts: array[0..LargeShiftCount - 1] of Integer =");
+        writeln(bw, "  (");
+        for (int j = 0; j < shiftCount; j++)
+            writeln(bw, "    %d%s", LARGE_SHIFTS[j], j == shiftCount - 1 ? "" : ",");
         writeln(bw, "  );");
         writeln(bw);
+        
+        for (String op: new String[] { "shl", "shr" })
+        {
+            writeln(bw, "  Large%sResults: array[0..ArgumentCount * LargeShiftCount - 1] of TShiftedHexResult =", op.equals("shl") ? "LeftShift" : "RightShift");
+            writeln(bw, "  (");
+            int n = 0;
+            for (int i = 0; i < count; i++)
+            {
+                BigInteger d1 = new BigInteger(ARGUMENTS[i]);
+                for (int j = 0; j < shiftCount; j++, n++)
+                {
+                    int shift = LARGE_SHIFTS[j];
+                    String result = op.equals("shl") ? toShiftedHex(d1, shift) : toShiftedHex(d1.shiftRight(shift), 0);
+                    writeln(bw, "    %s%s // Arguments[%d] %s %d", result, n == count * shiftCount - 1 ? " " : ",", i, op, shift);
+                }
+            }
+            writeln(bw, "  );");
+            writeln(bw);
+        }
     }
 
     static void generateNegationResults(BufferedWriter bw) throws IOException
@@ -942,18 +1225,117 @@ public class BigIntegerTestDataGenerator
         writeShiftResults(tw, "RightShiftResults", results, count, shiftCount, "shr");
     }
 
+    // Returns the exact decimal value of d, the same as new BigDecimal(d).toPlainString(), with 
+    // ".0" appended to integers, but without the BigDecimal. A double is m * 2^e, with an odd m 
+    // (after removing trailing zero bits). For e >= 0, that is an integer. Otherwise, it is 
+    // m * 5^-e / 10^-e, i.e. the digits of m * 5^-e with -e digits after the decimal point, 
+    // the last of which is a 5, so there are no trailing zeroes. The powers of 2 and 5 are 
+    // cached in base 10^9, so m * 2^e or m * 5^-e takes linear time and its digits can be 
+    // written directly, from right to left, into the result.
     static String toExactString(final double d)
     {
         if (Double.isNaN(d))
             return "NaN";
         if (Double.isInfinite(d))
             return d < 0 ? "NegInfinity" : "Infinity";
-           
-        BigDecimal dec = new BigDecimal(d);
-        String result = dec.toPlainString();
-        if (!result.contains("."))
-            result = result + ".0";
-        return result;
+        
+        long bits = Double.doubleToRawLongBits(d);
+        int exponent = (int)(bits >>> 52) & 0x7FF;
+        long mantissa = bits & 0xFFFFFFFFFFFFFL;
+        if (mantissa == 0 && exponent == 0)
+            return "0.0";
+        if (exponent == 0)
+            exponent = 1;                       // Denormal.
+        else
+            mantissa |= 1L << 52;
+        exponent -= 1075;
+        int zeroBits = Long.numberOfTrailingZeros(mantissa);
+        mantissa >>= zeroBits;
+        exponent += zeroBits;
+        
+        int[] limbs = multiplyDecimal(exponent >= 0 ? DECIMAL_POWERS_OF_TWO[exponent] : DECIMAL_POWERS_OF_FIVE[-exponent], mantissa);
+        int top = limbs.length - 1;
+        int topLength = 1;
+        for (int limb = limbs[top]; limb >= 10; limb /= 10)
+            topLength++;
+        int digitCount = 9 * top + topLength;
+        int fractionLength = Math.max(-exponent, 0);
+        
+        char[] buffer = new char[(d < 0 ? 1 : 0) + Math.max(digitCount, fractionLength + 1) + (exponent >= 0 ? 2 : 1)];
+        int n = buffer.length;
+        if (exponent >= 0)
+        {
+            buffer[--n] = '0';
+            buffer[--n] = '.';
+        }
+        int written = 0;
+        for (int i = 0; i <= top; i++)
+        {
+            int limb = limbs[i];
+            for (int k = i < top ? 9 : topLength; k > 0; k--, limb /= 10)
+            {
+                if (written++ == fractionLength && fractionLength > 0)
+                    buffer[--n] = '.';
+                buffer[--n] = (char)('0' + limb % 10);
+            }
+        }
+        if (written <= fractionLength && fractionLength > 0)
+        {
+            while (written++ < fractionLength)
+                buffer[--n] = '0';
+            buffer[--n] = '.';
+            buffer[--n] = '0';
+        }
+        if (d < 0)
+            buffer[--n] = '-';
+        return new String(buffer);
+    }
+    
+    // Returns value * factor, for a value in little endian limbs of base 10^9 and 0 < factor < 10^18.
+    static int[] multiplyDecimal(int[] value, long factor)
+    {
+        int[] result = new int[value.length + 2];
+        long low = factor % DECIMAL_LIMB_BASE;
+        long high = factor / DECIMAL_LIMB_BASE;
+        
+        long carry = 0;
+        for (int i = 0; i < value.length; i++)
+        {
+            long t = value[i] * low + carry;
+            result[i] = (int)(t % DECIMAL_LIMB_BASE);
+            carry = t / DECIMAL_LIMB_BASE;
+        }
+        result[value.length] = (int)carry;
+        if (high != 0)
+        {
+            carry = 0;
+            for (int i = 0; i < value.length; i++)
+            {
+                long t = value[i] * high + result[i + 1] + carry;
+                result[i + 1] = (int)(t % DECIMAL_LIMB_BASE);
+                carry = t / DECIMAL_LIMB_BASE;
+            }
+            result[value.length + 1] = (int)carry;
+        }
+        
+        int length = result.length;
+        while (length > 1 && result[length - 1] == 0)
+            length--;
+        return length == result.length ? result : Arrays.copyOf(result, length);
+    }
+    
+    // 2^0 .. 2^1023 and 5^0 .. 5^1074 (2^-1074 is the smallest denormal), in base 10^9.
+    static final long DECIMAL_LIMB_BASE = 1000000000L;
+    static final int[][] DECIMAL_POWERS_OF_TWO = new int[1024][];
+    static final int[][] DECIMAL_POWERS_OF_FIVE = new int[1075][];
+    static
+    {
+        DECIMAL_POWERS_OF_TWO[0] = new int[] { 1 };
+        for (int i = 1; i < DECIMAL_POWERS_OF_TWO.length; i++)
+            DECIMAL_POWERS_OF_TWO[i] = multiplyDecimal(DECIMAL_POWERS_OF_TWO[i - 1], 2);
+        DECIMAL_POWERS_OF_FIVE[0] = new int[] { 1 };
+        for (int i = 1; i < DECIMAL_POWERS_OF_FIVE.length; i++)
+            DECIMAL_POWERS_OF_FIVE[i] = multiplyDecimal(DECIMAL_POWERS_OF_FIVE[i - 1], 5);
     }
     
     static void writeDoubleResults(BufferedWriter bw, String arrayName, double[] results, int count, String func) throws IOException
@@ -973,7 +1355,14 @@ public class BigIntegerTestDataGenerator
     }
     
     // Unlike .NET's BigInteger, Java's BigInteger does not have a log() 
-    // method. This emulates it (rather slowly, I admit):
+    // method. This emulates it. 
+    //
+    // Only the top bits of the value can influence the result, so only the top 64 bits are
+    // extracted, with a shift, regardless of the size of the value. The value is then
+    // c * 2^bitlen, with 0.5 <= c < 1. The original version of this routine accumulated c bit 
+    // by bit, in a double. That rounds c to 53 bits, half-even, based on the 54th bit only
+    // (all lower bits are lost). Converting the top 54 bits to double rounds exactly the same
+    // way, so the results are identical.
     static double logarithm(final BigInteger value, final double baseValue)
     {
         if (value.signum() < 0 || baseValue == 1.0)
@@ -987,32 +1376,12 @@ public class BigIntegerTestDataGenerator
         if (value.equals(BigInteger.ONE))
             return 0.0;
 
-        double c = 0, d = 0.5;
         final double log2 = 0.69314718055994529;
 
-        byte[] byteArray = value.toByteArray();
-
         int bitlen = value.bitLength();
-        int byteLength = byteArray.length;
-        int index = 0;
-        if (byteArray[0] == (byte)0)
-            index++;
-        int topbits = bitlen - 8 * (byteLength - 1); 
-        if (topbits <= 0)
-            topbits += 8;
-        int indbit = (int)1 << (topbits - 1);
-
-        for(; index < byteLength; ++index)
-        {
-            while (indbit != 0)
-            {
-                if ((byteArray[index] & indbit) != 0)
-                    c += d;
-                d *= 0.5;
-                indbit >>= 1;
-            }
-            indbit = 128;
-        }
+        long top64 = bitlen > 64 ? value.shiftRight(bitlen - 64).longValue() : value.longValue() << (64 - bitlen);
+        double c = Math.scalb((double)(top64 >>> 10), -54);
+        
         return (Math.log(c) + log2 * bitlen) / Math.log(baseValue);
     }
     
@@ -1026,6 +1395,11 @@ public class BigIntegerTestDataGenerator
         return logarithm(value, 10.0);
     }
     
+    static double log2(final BigInteger value)
+    {
+        return logarithm(value, 2.0);
+    }
+    
     static void generateLnResults(BufferedWriter bw) throws IOException
     { 
         int count = ARGUMENTS.length;
@@ -1042,13 +1416,148 @@ public class BigIntegerTestDataGenerator
         BigInteger b = BigInteger.valueOf(1000).pow(1000);
         double d1 = log(b);
         double d2 = log10(b);
-        double d3 = logarithm(b, 2.0);
+        double d3 = log2(b);
         writeln(bw, "  Ln_1000_1000    = %s;", toExactString(d1));
         writeln(bw, "  Log10_1000_1000 = %s;", toExactString(d2));
         writeln(bw, "  Log2_1000_1000  = %s;", toExactString(d3));
         writeln(bw);
     }
 
+    // Returns { floor(radicand^(1/index)), radicand - root^index }. BigInteger.sqrt() only exists 
+    // since Java 9, so square roots use this too.
+    static BigInteger[] rootRemainder(BigInteger radicand, int index)
+    {
+        if (radicand.signum() < 0)
+            throw new ArithmeticException("Negative radicand");
+        if (radicand.compareTo(BigInteger.ONE) <= 0)
+            return new BigInteger[] { radicand, BigInteger.ZERO };
+        
+        // After one step, the estimate is >= the root, whatever it was before. From there on, 
+        // the estimates decrease until they reach the root.
+        BigInteger root = rootStep(radicand, index, rootEstimate(radicand, index));
+        while (true)
+        {
+            BigInteger next = rootStep(radicand, index, root);
+            if (next.compareTo(root) >= 0)
+                return new BigInteger[] { root, radicand.subtract(root.pow(index)) };
+            root = next;
+        }
+    }
+    
+    // One Newton step: ((index - 1) * root + radicand / root^(index - 1)) / index.
+    static BigInteger rootStep(BigInteger radicand, int index, BigInteger root)
+    {
+        return root.multiply(BigInteger.valueOf(index - 1)).add(radicand.divide(root.pow(index - 1))).divide(BigInteger.valueOf(index));
+    }
+    
+    // Estimate of the root. Small roots come from a floating point calculation, which is already 
+    // correct to about 50 bits. Larger roots are calculated from the root of the top half of the 
+    // radicand, which gives half of the bits, and one Newton step doubles that again. So only 
+    // the last steps are done at full size.
+    static BigInteger rootEstimate(BigInteger radicand, int index)
+    {
+        int rootBits = radicand.bitLength() / index;
+        if (rootBits > 100)
+        {
+            int shift = rootBits / 2;
+            BigInteger root = rootEstimate(radicand.shiftRight(shift * index), index).shiftLeft(shift);
+            return rootStep(radicand, index, root);
+        }
+        
+        // Estimate, scaled so it fits a long.
+        double exponent = log2(radicand) / index;
+        int shift = Math.max(0, (int)exponent - 60);
+        return BigInteger.valueOf((long)Math.pow(2.0, exponent - shift) + 1).shiftLeft(shift);
+    }
+    
+    static TestResult[] rootResults(BigInteger radicand, int index)
+    {
+        TestResult[] results = { new TestResult(), new TestResult() };
+        try
+        {
+            BigInteger[] rootRem = rootRemainder(radicand, index);
+            results[0].val = rootRem[0].toString();
+            results[1].val = rootRem[1].toString();
+        }
+        catch (ArithmeticException e)
+        {
+            for (TestResult tr: results)
+            {
+                tr.val = e.getMessage();
+                tr.info = TestResultInfo.ArgumentRange;
+            }
+        }
+        return results;
+    }
+    
+    static void generateSqrtResults(BufferedWriter bw) throws IOException
+    {
+        int count = ARGUMENTS.length;
+        TestResult[][] results = new TestResult[count][];
+        
+        IntStream.range(0, count).parallel().forEach(i -> results[i] = rootResults(new BigInteger(ARGUMENTS[i]), 2));
+        
+        TestResult[] roots = new TestResult[count];
+        TestResult[] remainders = new TestResult[count];
+        for (int i = 0; i < count; i++)
+        {
+            roots[i] = results[i][0];
+            remainders[i] = results[i][1];
+        }
+        writeUnaryResults(bw, "SqrtResults", roots, count, "Sqrt(", ")");
+        writeUnaryResults(bw, "SqrtRemainderResults", remainders, count, "SqrtRemainder(", ")");
+    }
+    
+    // NthRoot for the absolute values of all arguments and all indices from MIN_ROOT_INDEX to 
+    // MAX_ROOT_INDEX. Negative radicands are already covered by the Sqrt results. The remainders
+    // are as large as the arguments, so only the flag whether the root is exact is written.
+    static void generateNthRootResults(BufferedWriter bw) throws IOException
+    {
+        int count = ARGUMENTS.length;
+        int indices = MAX_ROOT_INDEX - MIN_ROOT_INDEX + 1;
+        TestResult[][] results = new TestResult[count * indices][];
+        
+        IntStream.range(0, count * indices).parallel().forEach(n -> 
+            results[n] = rootResults(new BigInteger(ARGUMENTS[n / indices]).abs(), MIN_ROOT_INDEX + n % indices));
+        
+        writeln(bw, "  MinNthRootIndex = %d;", MIN_ROOT_INDEX);
+        writeln(bw, "  MaxNthRootIndex = %d;", MAX_ROOT_INDEX);
+        writeln(bw, "  NthRootResultsCount = ArgumentCount * (MaxNthRootIndex - MinNthRootIndex + 1);");
+        writeln(bw);
+        writeln(bw, "  NthRootResults: array[0..NthRootResultsCount - 1] of TTestResult =");
+        writeln(bw, "  (");
+        for (int n = 0; n < count * indices; n++)
+            formatResult(bw, results[n][0], n == count * indices - 1, 
+                    String.format("(%d): NthRoot(Abs(Arguments[%d]), %d)", n, n / indices, MIN_ROOT_INDEX + n % indices));
+        writeln(bw, "  );");
+        writeln(bw);
+        
+        writeln(bw, "  // True if the remainder of NthRootResults[I] is 0, i.e. the root is exact.");
+        writeln(bw, "  NthRootExact: array[0..NthRootResultsCount - 1] of Boolean =");
+        writeln(bw, "  (");
+        for (int i = 0; i < count; i++)
+        {
+            StringBuilder sb = new StringBuilder("    ");
+            for (int j = 0; j < indices; j++)
+            {
+                TestResult remainder = results[i * indices + j][1];
+                sb.append(bool(remainder.info == TestResultInfo.Ok && remainder.val.equals("0")));
+                if (i < count - 1 || j < indices - 1)
+                    sb.append(",");
+                if (j % 16 == 15 && j < indices - 1)
+                {
+                    writeln(bw, sb.toString());
+                    sb = new StringBuilder("    ");
+                }
+                else if (j < indices - 1)
+                    sb.append(" ");
+            }
+            writeln(bw, "%s // Arguments[%d]", sb, i);
+        }
+        writeln(bw, "  );");
+        writeln(bw);
+    }
+    
     static void generatePowerResults(BufferedWriter bw) throws IOException
     {
         int count = BITSHIFTS.length;
@@ -1085,17 +1594,18 @@ public class BigIntegerTestDataGenerator
         writeln(bw, "  ModPowResults: array[0..ModPowResultsCount - 1] of TTestResult =");
         writeln(bw, "  (");
 
+        BigInteger[] args = getArguments();
         int n = 0;
         // Starting at 2, 0, 1 resp. produces a few exceptions, as desired.
         for (int i = 2; i < count; i += 5)
         {
-            BigInteger d1 = new BigInteger(ARGUMENTS[i]).abs();
+            BigInteger d1 = args[i].abs();
             for (int j = 0; j < count; j += 5)
             {
-                BigInteger d2 = new BigInteger(ARGUMENTS[j]).abs();
+                BigInteger d2 = args[j].abs();
                 for (int k = 1; k < count; k += 5, ++n)
                 {
-                    BigInteger d3 = new BigInteger(ARGUMENTS[k]).abs();
+                    BigInteger d3 = args[k].abs();
                     TestResult tr = new TestResult();
                     
                     try
@@ -1120,102 +1630,230 @@ public class BigIntegerTestDataGenerator
     
     }
     
-    static String bool(boolean b)
+    // Stress tier for ModPow. Each cell is a combination of exponent size, modulus size and
+    // modulus parity. Odd moduli take the Montgomery path in Velthuis.BigIntegers, even moduli
+    // do not. The operands are generated from a seed per cell, so the cells are independent 
+    // and can be computed in parallel, but the output is the same on each run.
+    static BigInteger randomBigInteger(int bits, Random rand)
     {
-        return b ? "True" : "False";
+        BigInteger result = new BigInteger(bits, rand);
+        return bits > 0 ? result.setBit(bits - 1) : result;
     }
     
-    static void generateComparisonResults(BufferedWriter bw) throws IOException
+    static BigInteger modPowStressModulus(int bits, boolean odd, int sample, Random rand)
     {
-        int count = ARGUMENTS.length;
-        boolean[][] results = new boolean[count * count][6];
-
-        writeln(bw, "  ComparisonResults: array[0..ArgumentCount * ArgumentCount - 1, TComparisonResult] of Boolean =");
-        writeln(bw, "  (");
-
-        int n = 0;
-        for (int i = 0; i < count; i++)
-        {
-            BigInteger b1 = new BigInteger(ARGUMENTS[i]);
-
-            for (int j = 0; j < count; j++, n++)
-            {
-                BigInteger b2 = new BigInteger(ARGUMENTS[j]);
-
-                writeln(bw, "    (%5s, %5s, %5s, %5s, %5s, %5s)%s         // Arguments[%d] <-> Arguments[%d]", 
-                        bool(b1.compareTo(b2) > 0), bool(b1.compareTo(b2) >= 0), bool(b1.compareTo(b2) == 0), 
-                        bool(b1.compareTo(b2) <= 0), bool(b1.compareTo(b2) < 0), bool(b1.compareTo(b2) != 0), 
-                        (n < count * count - 1) ? "," : " ", i, j); 
-            }
-        }
-        writeln(bw, "  );");
-        writeln(bw);
+        BigInteger result = randomBigInteger(bits, rand);
+        if (odd)
+            return result.setBit(0);
+        
+        // The second even sample has a factor 2^32, i.e. the lowest limb is zero.
+        result = result.clearBit(0);
+        if (sample > 0)
+            result = result.shiftRight(32).shiftLeft(32).setBit(32);
+        return result;
     }
-
-    static void generateGCDResults(BufferedWriter bw) throws IOException 
+    
+    static int modPowStressCell(int e, int m, int p)
     {
-        int count = ARGUMENTS.length;
-        TestResult[] results = new TestResult[count * count];
-
-        int n = 0;
-        for (int i = 0; i < count; i++)
-        {
-            BigInteger b1 = new BigInteger(ARGUMENTS[i]);
-
-            for (int j = 0; j < count; j++, n++)
-            {
-                BigInteger b2 = new BigInteger(ARGUMENTS[j]);
-
-                BigInteger b3 = b1.gcd(b2);
-                TestResult tr = new TestResult();
-                tr.val = b3.toString();
-                tr.info = TestResultInfo.Ok;
-                results[n] = tr;
-            }
-        }
-
-        writeBinaryResults(bw, "GCDResults", results, count, "gcd");
+        return (e * MODPOW_MODULUS_BITS.length + m) * 2 + p;
     }
     
-    static void generateInvModResults(BufferedWriter bw) throws IOException
+    static BigInteger[][] generateModPowStressOperands()
     {
+        int cellCount = MODPOW_EXPONENT_BITS.length * MODPOW_MODULUS_BITS.length * 2;
+        int total = cellCount * MODPOW_SAMPLES;
+        BigInteger[][] operands = new BigInteger[3][total];
         
-        int count = ARGUMENTS.length;
-        TestResult[] results = new TestResult[count * count];
-
-        int n = 0;
-        for (int i = 0; i < count; i++)
-        {
-            BigInteger b1 = new BigInteger(ARGUMENTS[i]);
+        for (int e = 0; e < MODPOW_EXPONENT_BITS.length; e++)
+            for (int m = 0; m < MODPOW_MODULUS_BITS.length; m++)
+                for (int p = 0; p < 2; p++)
+                {
+                    int cell = modPowStressCell(e, m, p);
+                    Random rand = new Random(MODPOW_SEED + cell);
+                    int modBits = MODPOW_MODULUS_BITS[m];
+                    for (int s = 0; s < MODPOW_SAMPLES; s++)
+                    {
+                        int n = cell * MODPOW_SAMPLES + s;
+                        
+                        // The second base is larger than the modulus, so it must be reduced first.
+                        operands[0][n] = randomBigInteger(s == 0 ? modBits - 1 : modBits + 32, rand);
+                        operands[1][n] = randomBigInteger(MODPOW_EXPONENT_BITS[e], rand);
+                        operands[2][n] = modPowStressModulus(modBits, p == 0, s, rand);
+                    }
+                }
+        return operands;
+    }
+    
+    static TestResult modPowResult(BigInteger base, BigInteger exponent, BigInteger modulus)
+    {
+        TestResult tr = new TestResult();
+        try
+        {
+            tr.val = base.modPow(exponent, modulus).toString();
+            tr.info = TestResultInfo.Ok;
+        }
+        catch (ArithmeticException e)
+        {
+            tr.val = e.getMessage();
+            tr.info = TestResultInfo.DivideByZero;
+        }
+        return tr;
+    }
+    
+    static void writeStringArray(BufferedWriter bw, String arrayName, String countName, String[] values) throws IOException
+    {
+        writeln(bw, "  %s: array[0..%s - 1] of string =", arrayName, countName);
+        writeln(bw, "  (");
+        for (int i = 0; i < values.length; i++)
+            writeln(bw, formatString(values[i], i == values.length - 1, String.format("%d", i)));
+        writeln(bw, "  );");
+        writeln(bw);
+    }
+    
+    static void generateModPowStressResults(BufferedWriter bw) throws IOException
+    {
+        BigInteger[][] operands = generateModPowStressOperands();
+        BigInteger[] bases = operands[0];
+        BigInteger[] exponents = operands[1];
+        BigInteger[] moduli = operands[2];
+        int total = bases.length;
+        TestResult[] results = new TestResult[total];
+        
+        writeln("Generating %d ModPow stress results...", total);
+        IntStream.range(0, total).parallel().forEach(n -> results[n] = modPowResult(bases[n], exponents[n], moduli[n]));
+        
+        String[][] strings = new String[3][total];
+        for (int i = 0; i < 3; i++)
+            for (int n = 0; n < total; n++)
+                strings[i][n] = operands[i][n].toString();
+        
+        writeln(bw, "const");
+        writeln(bw, "  ModPowStressCount = %d;", total);
+        writeln(bw);
+        writeStringArray(bw, "ModPowStressBases", "ModPowStressCount", strings[0]);
+        writeStringArray(bw, "ModPowStressExponents", "ModPowStressCount", strings[1]);
+        writeStringArray(bw, "ModPowStressModuli", "ModPowStressCount", strings[2]);
+        
+        writeln(bw, "  ModPowStressResults: array[0..ModPowStressCount - 1] of TTestResult =");
+        writeln(bw, "  (");
+        for (int n = 0; n < total; n++)
+            formatResult(bw, results[n], n == total - 1, String.format("(%d): %d-bit exponent, %d-bit %s modulus", n, 
+                    exponents[n].bitLength(), moduli[n].bitLength(), moduli[n].testBit(0) ? "odd" : "even"));
+        writeln(bw, "  );");
+        writeln(bw);
+    }
+    
+    // Times BigInteger.modPow() for each cell of the stress tier. The cells are timed one 
+    // after the other, so the timings are not disturbed by the other cells.
+    static void benchmarkModPow()
+    {
+        BigInteger[][] operands = generateModPowStressOperands();
+        
+        writeln("ModPow benchmark (Java BigInteger.modPow, microseconds per call)");
+        writeln();
+        writeln("  Exponent  Modulus        odd       even");
+        for (int e = 0; e < MODPOW_EXPONENT_BITS.length; e++)
+            for (int m = 0; m < MODPOW_MODULUS_BITS.length; m++)
+            {
+                double[] times = new double[2];
+                for (int p = 0; p < 2; p++)
+                {
+                    int first = modPowStressCell(e, m, p) * MODPOW_SAMPLES;
+                    
+                    // Warm up, then take as many rounds as fit in about 100 ms.
+                    for (int w = 0; w < 2; w++)
+                        for (int s = 0; s < MODPOW_SAMPLES; s++)
+                            operands[0][first + s].modPow(operands[1][first + s], operands[2][first + s]);
+                    long rounds = 0;
+                    long elapsed;
+                    long start = System.nanoTime();
+                    do
+                    {
+                        for (int s = 0; s < MODPOW_SAMPLES; s++)
+                            operands[0][first + s].modPow(operands[1][first + s], operands[2][first + s]);
+                        rounds++;
+                        elapsed = System.nanoTime() - start;
+                    }
+                    while (elapsed < 100000000L);
+                    times[p] = elapsed / 1000.0 / (rounds * MODPOW_SAMPLES);
+                }
+                writeln("  %8d %8d %10.1f %10.1f", MODPOW_EXPONENT_BITS[e], MODPOW_MODULUS_BITS[m], times[0], times[1]);
+            }
+        writeln();
+    }
+    
+    static String bool(boolean b)
+    {
+        return b ? "True" : "False";
+    }
+    
+    static void generateComparisonResults(BufferedWriter bw) throws IOException
+    {
+        SignMatrix signs = getComparisons();
+        int count = ARGUMENTS.length;
+
+        // The six predicates only depend on the sign, so they are formatted once per sign, and
+        // the lines are streamed to the file row by row.
+        String[] predicates = new String[3];
+        for (int sign = -1; sign <= 1; sign++)
+            predicates[sign + 1] = String.format("    (%5s, %5s, %5s, %5s, %5s, %5s)", 
+                    bool(sign > 0), bool(sign >= 0), bool(sign == 0), 
+                    bool(sign <= 0), bool(sign < 0), bool(sign != 0));
+
+        writeln(bw, "  ComparisonResults: array[0..ArgumentCount * ArgumentCount - 1, TComparisonResult] of Boolean =");
+        writeln(bw, "  (");
+
+        for (int i = 0; i < count; i++)
+        {
+            for (int j = 0; j < count; j++)
+            {
+                bw.write(predicates[signs.get(i, j) + 1]);
+                bw.write(i < count - 1 || j < count - 1 ? "," : " ");
+                writeln(bw, "         // Arguments[" + i + "] <-> Arguments[" + j + "]");
+            }
+        }
+        writeln(bw, "  );");
+        writeln(bw);
+    }
+
+    static void generateGCDResults(BufferedWriter bw) throws IOException
+    {
+        writeBinaryResults(bw, "GCDResults", computeBinaryResults(BigInteger::gcd, true), ARGUMENTS.length, "gcd");
+    }
+    
+    static void generateInvModResults(BufferedWriter bw) throws IOException
+    {
+        BigInteger[] args = getArguments();
+        int count = args.length;
+        ResultStore results = new ResultStore(count * count);
+
+        int n = 0;
+        for (int i = 0; i < count; i++)
+        {
+            BigInteger b1 = args[i];
 
             for (int j = 0; j < count; j++, n++)
             {
-                BigInteger b2 = new BigInteger(ARGUMENTS[j]);
+                BigInteger b2 = args[j];
 
-                TestResult tr = new TestResult();
                 try
                 {
                     BigInteger b3 = b1.abs().modInverse(b2.abs());
                     if (b3.signum() == 0)
                     {
-                        tr.val = "Error: Zero result -- Java is wrong";
+                        results.set(n, TestResultInfo.ArgumentRange, "Error: Zero result -- Java is wrong");
                         writeln("(%d,%d,%d): Zero result", i, j, n);
-                        tr.info = TestResultInfo.ArgumentRange;
                     }
                     else
                     {
-                        tr.val = b1.signum() < 0 ? "-" + b3.toString() : b3.toString();
-                        tr.info = TestResultInfo.Ok;
+                        results.set(n, TestResultInfo.Ok, b1.signum() < 0 ? "-" + b3.toString() : b3.toString());
                     }
                 }
                 catch (ArithmeticException e)
                 {
-                    tr.val = "Error: " + e.getMessage();
-                    tr.info = TestResultInfo.ArgumentRange;
+                    results.set(n, TestResultInfo.ArgumentRange, "Error: " + e.getMessage());
                     writeln("(%d,%d,%d): No modular inverse", i, j, n);
                 }
-                        
-                results[n] = tr;
             }
         }
 
@@ -1224,69 +1862,161 @@ public class BigIntegerTestDataGenerator
 
     static void generateMinResults(BufferedWriter bw) throws IOException
     {
-        int count = ARGUMENTS.length;
-        TestResult[] results = new TestResult[count * count];
+        int[] results = computeMinMaxResults(false);
+        writeBinaryResults(bw, "MinResults", n -> TestResultInfo.Ok, n -> ARGUMENTS[results[n]], ARGUMENTS.length, "min");
+    }
 
-        int n = 0;
-        for (int i = 0; i < count; i++)
+    static void generateMaxResults(BufferedWriter bw) throws IOException
+    {
+        int[] results = computeMinMaxResults(true);
+        writeBinaryResults(bw, "MaxResults", n -> TestResultInfo.Ok, n -> ARGUMENTS[results[n]], ARGUMENTS.length, "max");
+    }
+    
+    // Factorials are calculated with the prime swing algorithm (Peter Luschny):
+    //
+    //   n! = (n/2)!^2 * swing(n)
+    //
+    // where swing(n) = n! / (n/2)!^2 is the product of the prime powers p^e <= n, e being the 
+    // number of odd values among n / p, n / p^2, etc. All products are formed by binary splitting,
+    // the large ones in parallel. The most recent factorials are cached. Consecutive n share the 
+    // same (n/2)!, and a factorial close to a cached one only needs the few missing factors.
+    static BigInteger factorial(int n)
+    {
+        if (n < 2)
+            return BigInteger.ONE;
+        
+        Map.Entry<Integer, BigInteger> cached = cachedFactorial(n);
+        if (cached != null && cached.getKey() == n)
+            return cached.getValue();
+        
+        BigInteger result;
+        if (cached != null && n - cached.getKey() <= FACTORIAL_GAP)
         {
-            BigInteger b1 = new BigInteger(ARGUMENTS[i]);
-            for (int j = 0; j < count; j++, n++)
-            {
-                BigInteger b2 = new BigInteger(ARGUMENTS[j]);
-                BigInteger b3 = b1.min(b2);
-                
-                TestResult tr = new TestResult();
-
-                tr.info = TestResultInfo.Ok;
-                tr.val = b3.toString();
-                results[n] = tr;
-            }
+            result = cached.getValue().multiply(product(cached.getKey() + 1, n));
         }
-
-        writeBinaryResults(bw, "MinResults", results, count, "min");
+        else
+        {
+            BigInteger half = factorial(n / 2);
+            result = half.multiply(half).multiply(swing(n));
+        }
+        cacheFactorial(n, result);
+        return result;
     }
-
-    static void generateMaxResults(BufferedWriter bw) throws IOException
+    
+    // Returns the cached factorial with the largest n' <= n, or null.
+    static synchronized Map.Entry<Integer, BigInteger> cachedFactorial(int n)
     {
-        int count = ARGUMENTS.length;
-        TestResult[] results = new TestResult[count * count];
-
-        int n = 0;
-        for (int i = 0; i < count; i++)
+        return factorialCache.floorEntry(n);
+    }
+    
+    static synchronized void cacheFactorial(int n, BigInteger value)
+    {
+        if (factorialCache.put(n, value) == null)
         {
-            BigInteger b1 = new BigInteger(ARGUMENTS[i]);
-            for (int j = 0; j < count; j++, n++)
-            {
-                BigInteger b2 = new BigInteger(ARGUMENTS[j]);
-                BigInteger b3 = b1.max(b2);
-
-                TestResult tr = new TestResult();
-                
-                tr.info = TestResultInfo.Ok;
-                tr.val = b3.toString();
-                results[n] = tr;
-            }
+            factorialCacheOrder.add(n);
+            if (factorialCacheOrder.size() > FACTORIAL_CACHE_SIZE)
+                factorialCache.remove(factorialCacheOrder.remove());
         }
-
-        writeBinaryResults(bw, "MaxResults", results, count, "max");
     }
     
-    static BigInteger factorial(int n)
+    static BigInteger swing(int n)
     {
-        BigInteger result = BigInteger.ONE;
+        int[] primes = primesUpTo(n);
+        long[] factors = new long[primes.length];
+        int count = 0;
         
-        if (n < 2)
-            return BigInteger.ONE;
+        for (int p: primes)
+        {
+            int q = n;
+            long pe = 1;
+            while ((q /= p) > 0)
+                if ((q & 1) != 0)
+                    pe *= p;
+            if (pe > 1)
+                factors[count++] = pe;
+        }
+        return product(factors, 0, count);
+    }
+    
+    // Returns the product of the integers from .. to (inclusive).
+    static BigInteger product(int from, int to)
+    {
+        long[] factors = new long[to - from + 1];
+        for (int i = 0; i < factors.length; i++)
+            factors[i] = from + i;
+        return product(factors, 0, factors.length);
+    }
+    
+    // Returns the product of factors[from] .. factors[to - 1], using binary splitting. The 
+    // halves of large products are calculated in parallel.
+    static BigInteger product(long[] factors, int from, int to)
+    {
+        int count = to - from;
+        
+        if (count <= 16)
+        {
+            BigInteger result = BigInteger.ONE;
+            long partial = 1;
+            for (int i = from; i < to; i++)
+            {
+                // Multiply small factors as longs, as long as that can't overflow.
+                if (partial <= Long.MAX_VALUE / factors[i])
+                    partial *= factors[i];
+                else
+                {
+                    result = result.multiply(BigInteger.valueOf(partial));
+                    partial = factors[i];
+                }
+            }
+            return result.multiply(BigInteger.valueOf(partial));
+        }
         
-        for (int i = 2; i <= n; i++)
+        int middle = (from + to) >>> 1;
+        if (count >= PARALLEL_PRODUCT_THRESHOLD)
+        {
+            ForkJoinTask<BigInteger> low = ForkJoinTask.adapt(() -> product(factors, from, middle)).fork();
+            BigInteger high = product(factors, middle, to);
+            return low.join().multiply(high);
+        }
+        return product(factors, from, middle).multiply(product(factors, middle, to));
+    }
+    
+    // Returns the primes <= n. The sieve is cached and only recalculated if n exceeds it.
+    static synchronized int[] primesUpTo(int n)
+    {
+        if (n > sieveLimit)
         {
-            result = result.multiply(BigInteger.valueOf(i));
+            int limit = Math.max(n, 2 * sieveLimit);
+            boolean[] composite = new boolean[limit + 1];
+            int count = 0;
+            
+            for (int i = 2; i <= limit; i++)
+                if (!composite[i])
+                {
+                    count++;
+                    for (long j = (long)i * i; j <= limit; j += i)
+                        composite[(int)j] = true;
+                }
+            sievePrimes = new int[count];
+            count = 0;
+            for (int i = 2; i <= limit; i++)
+                if (!composite[i])
+                    sievePrimes[count++] = i;
+            sieveLimit = limit;
         }
         
-        return result;
+        int count = Arrays.binarySearch(sievePrimes, n);
+        return Arrays.copyOf(sievePrimes, count >= 0 ? count + 1 : -count - 1);
     }
     
+    static final int FACTORIAL_GAP = 64;
+    static final int FACTORIAL_CACHE_SIZE = 64;
+    static final int PARALLEL_PRODUCT_THRESHOLD = 512;
+    static TreeMap<Integer, BigInteger> factorialCache = new TreeMap<>();
+    static ArrayDeque<Integer> factorialCacheOrder = new ArrayDeque<>();
+    static int sieveLimit = 1;
+    static int[] sievePrimes = new int[0];
+    
     static void generateFactorialResults(BufferedWriter bw) throws IOException
     {
         int count = BITSHIFTS.length;
@@ -1306,6 +2036,55 @@ public class BigIntegerTestDataGenerator
         writeUnaryResults(bw, "FactorialResults", results, count, "Factorial(", ")", "BitShifts");
     }
     
+    static void generateLargeFactorialResults(BufferedWriter bw) throws IOException
+    {
+        int count = LARGE_FACTORIALS.length;
+        
+        writeln(bw, "const");
+        writeln(bw, "  LargeFactorialCount = %d;", count);
+        writeln(bw, "  LargeFactorialArguments: array[0..LargeFactorialCount - 1] of Integer =");
+        writeln(bw, "  (");
+        bw.write("    ");
+        for (int i = 0; i < count; i++)
+            bw.write(String.format("%d%s", LARGE_FACTORIALS[i], i == (count - 1) ? "" : ", "));
+        writeln(bw);
+        writeln(bw, "  );");
+        writeln(bw);
+        
+        writeln(bw, "  LargeFactorialResults: array[0..LargeFactorialCount - 1] of TTestResult =");
+        writeln(bw, "  (");
+        for (int i = 0; i < count; i++)
+        {
+            writeln("Calculating %d!...", LARGE_FACTORIALS[i]);
+            TestResult tr = new TestResult();
+            tr.info = TestResultInfo.Ok;
+            tr.val = factorial(LARGE_FACTORIALS[i]).toString();
+            formatResult(bw, tr, i == count - 1, String.format("Factorial(%d)", LARGE_FACTORIALS[i]));
+        }
+        writeln(bw, "  );");
+        writeln(bw);
+    }
+    
+    // Factorials that are too large for Delphi string constants are streamed to a text file, one
+    // per line, in hexadecimal.
+    static void generateHugeFactorialResults(BufferedWriter bw) throws IOException
+    {
+        writeln(bw, "// Each line is either a comment (//) or a factorial. All values are hexadecimal.");
+        writeln(bw, "//");
+        writeln(bw, "//   Factorial <N> <Value>");
+        writeln(bw);
+        
+        writeln("Generating %d huge factorials...", HUGE_FACTORIALS.length);
+        computeOrdered(HUGE_FACTORIALS.length, i -> toHex(factorial(HUGE_FACTORIALS[i])), 
+        (i, value) -> 
+        {
+            bw.write(String.format("Factorial %d ", HUGE_FACTORIALS[i]));
+            bw.write(value);
+            bw.newLine();
+        });
+        writeln(bw);
+    }
+    
     static String generateRandomStringForBase(int maxLength, int base, Random rand)
     {
         
@@ -1607,6 +2386,879 @@ public class BigIntegerTestDataGenerator
     }
     
 
+    // Returns the value in Delphi's hexadecimal notation, e.g. '-$1F'. Unlike toString(16), 
+    // this takes linear time, which matters for the large operands.
+    static String toHex(BigInteger value)
+    {
+        byte[] bytes = value.abs().toByteArray();
+        int start = (bytes[0] == 0 && bytes.length > 1) ? 1 : 0;
+        char[] chars = new char[2 * (bytes.length - start) + 2];
+        int n = 0;
+        
+        if (value.signum() < 0)
+            chars[n++] = '-';
+        chars[n++] = '$';
+        for (int i = start; i < bytes.length; i++)
+        {
+            int b = bytes[i] & 0xFF;
+            if (i > start || b > 15)
+                chars[n++] = HEX_DIGITS[b >> 4];
+            chars[n++] = HEX_DIGITS[b & 15];
+        }
+        return new String(chars, 0, n);
+    }
+    
+    static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    
+    public interface IndexedResultWriter<T>
+    {
+        void write(int index, T result) throws IOException;
+    }
+    
+    // Computes results 0..total - 1 in parallel, but hands them to the writer in order, as soon as
+    // they are available. At most a few results per processor are pending at any time, so the
+    // results are streamed out and need not be kept in memory.
+    static <T> void computeOrdered(int total, IntFunction<T> compute, IndexedResultWriter<T> writer) throws IOException
+    {
+        int window = 4 * Runtime.getRuntime().availableProcessors();
+        ArrayDeque<CompletableFuture<T>> pending = new ArrayDeque<>();
+        int next = 0;
+        
+        for (int n = 0; n < total; n++)
+        {
+            while (next < total && pending.size() < window)
+            {
+                final int index = next++;
+                pending.add(CompletableFuture.supplyAsync(() -> compute.apply(index)));
+            }
+            writer.write(n, pending.remove().join());
+        }
+    }
+    
+    // Stress tier with large operands, so the Karatsuba, Toom-Cook 3 and Burnikel-Ziegler code 
+    // paths are covered too. The operands have the given sizes in 32 bit limbs, and come in 
+    // several patterns. They are generated from a seed per operand, so they are the same on 
+    // each run. Results can be megabytes each, so they are streamed to a text file, one per 
+    // line, in hexadecimal.
+    static int[] getLargeLimbCounts()
+    {
+        String[] values = getOptionValue("-limbs", LARGE_LIMBS).split(",");
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++)
+            result[i] = Integer.parseInt(values[i].trim());
+        return result;
+    }
+    
+    // Random operands are the same as BigInteger.Create(32 * Limbs, R) with the top bit set, in 
+    // Delphi, where R is a TXorShift64 with the seed that is written with the operand. The 
+    // seeds are split off one XorShift64 stream, so each operand gets its own, independent 
+    // stream, no matter in which order the operands are generated. 
+    static BigInteger generateLargeOperand(int limbs, int pattern, XorShifts.XorShift64 random)
+    {
+        int bits = 32 * limbs;
+        switch (pattern)
+        {
+            case 0:
+                return RandomNumbers.createBigInteger(bits, random).setBit(bits - 1);
+            case 1:
+                return RandomNumbers.createBigInteger(bits, random).setBit(bits - 1).negate();
+            case 2:
+                return BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE);
+            default:
+                return BigInteger.ONE.shiftLeft(bits - 1);
+        }
+    }
+    
+    static void generateLargeResults(BufferedWriter bw) throws IOException
+    {
+        int[] limbs = getLargeLimbCounts();
+        int count = limbs.length * LARGE_PATTERNS.length;
+        BigInteger[] operands = new BigInteger[count];
+        long[] seeds = new long[count];
+        XorShifts.XorShift64 random = new XorShifts.XorShift64(LARGE_SEED);
+        
+        IntStream.range(0, count).parallel().forEach(i -> 
+        {
+            XorShifts.XorShift64 operandRandom = random.split(i);
+            seeds[i] = operandRandom.getSeed();
+            operands[i] = generateLargeOperand(limbs[i / LARGE_PATTERNS.length], i % LARGE_PATTERNS.length, operandRandom);
+        });
+        
+        writeln(bw, "// Each line is either a comment (//), an operand or a result. All values are hexadecimal.");
+        writeln(bw, "// The seed is the TXorShift64 seed for random operands (see generator).");
+        writeln(bw, "//");
+        writeln(bw, "//   Operand <Index> <Limbs> <Pattern> <Seed> <Value>");
+        writeln(bw, "//   <Section> <Index> <Left> <Right> <Info> <Value>");
+        writeln(bw, "//");
+        writeln(bw, "// Add and Multiply are commutative, so they only have lines for Left <= Right.");
+        writeln(bw);
+        for (int i = 0; i < count; i++)
+            writeln(bw, "Operand %d %d %s $%016X %s", i, limbs[i / LARGE_PATTERNS.length], LARGE_PATTERNS[i % LARGE_PATTERNS.length], seeds[i], toHex(operands[i]));
+        writeln(bw);
+        
+        writeLargeBinaryResults(bw, "Add", operands, BigInteger::add, true);
+        writeLargeBinaryResults(bw, "Subtract", operands, BigInteger::subtract, false);
+        writeLargeBinaryResults(bw, "Multiply", operands, BigInteger::multiply, true);
+        writeLargeBinaryResults(bw, "Division", operands, BigInteger::divide, false);
+        writeLargeBinaryResults(bw, "Modulus", operands, BigInteger::remainder, false);
+        writeLargeRootResults(bw, operands);
+    }
+    
+    // The roots are written as NthRoot <Index> <Operand> <RootIndex>, each followed by its remainder, 
+    // likewise, as NthRootRemainder.
+    static void writeLargeRootResults(BufferedWriter bw, BigInteger[] operands) throws IOException
+    {
+        int count = operands.length * LARGE_ROOT_INDICES.length;
+        
+        writeln("Generating %d large NthRoot results...", count);
+        computeOrdered(count, n -> 
+        {
+            TestResult[] results = { new TestResult(), new TestResult() };
+            try
+            {
+                BigInteger[] rootRem = rootRemainder(operands[n / LARGE_ROOT_INDICES.length], LARGE_ROOT_INDICES[n % LARGE_ROOT_INDICES.length]);
+                results[0].val = toHex(rootRem[0]);
+                results[1].val = toHex(rootRem[1]);
+            }
+            catch (ArithmeticException e)
+            {
+                for (TestResult tr: results)
+                {
+                    tr.val = e.getMessage();
+                    tr.info = TestResultInfo.ArgumentRange;
+                }
+            }
+            return results;
+        }, 
+        (n, results) -> 
+        {
+            writeLargeRootResult(bw, "NthRoot", n, results[0]);
+            writeLargeRootResult(bw, "NthRootRemainder", n, results[1]);
+        });
+        writeln(bw);
+    }
+    
+    static void writeLargeRootResult(BufferedWriter bw, String section, int n, TestResult tr) throws IOException
+    {
+        bw.write(String.format("%s %d %d %d tri%s ", section, n, n / LARGE_ROOT_INDICES.length, LARGE_ROOT_INDICES[n % LARGE_ROOT_INDICES.length], tr.info));
+        bw.write(tr.val);
+        bw.newLine();
+    }
+    
+    // For a commutative op, only the results for Left <= Right are calculated and written. The 
+    // test uses them for (Right, Left) as well.
+    static void writeLargeBinaryResults(BufferedWriter bw, String section, BigInteger[] operands, BinaryOperator<BigInteger> op, boolean commutative) throws IOException
+    {
+        int count = operands.length;
+        
+        writeln("Generating %d large %s results...", commutative ? count * (count + 1) / 2 : count * count, section);
+        computeOrdered(count * count, n -> 
+        {
+            if (commutative && n / count > n % count)
+                return null;
+            TestResult tr = new TestResult();
+            try
+            {
+                tr.val = toHex(op.apply(operands[n / count], operands[n % count]));
+                tr.info = TestResultInfo.Ok;
+            }
+            catch (ArithmeticException e)
+            {
+                tr.val = e.getMessage();
+                tr.info = TestResultInfo.DivideByZero;
+            }
+            return tr;
+        }, 
+        (n, tr) -> 
+        {
+            if (tr == null)
+                return;
+            bw.write(String.format("%s %d %d %d tri%s ", section, n, n / count, n % count, tr.info));
+            bw.write(tr.val);
+            bw.newLine();
+        });
+        writeln(bw);
+    }
+    
+    // Primality tier for Velthuis.BigIntegers.Primes. Contains:
+    // - ranges of consecutive numbers, with the offsets of the primes in each range,
+    // - random numbers with the distance to the next prime >= each number,
+    // - IsPrime results for special numbers like strong pseudoprimes and Mersenne numbers,
+    // - IsWitness results for a set of moduli and small bases.
+    // Candidates are prefiltered with a segmented sieve, so only the survivors need the 
+    // (much more expensive) probabilistic test, and they are tested in parallel.
+    static boolean[] sieveSegment(BigInteger start, int length)
+    {
+        boolean[] composite = new boolean[length];
+        
+        for (int p: primesUpTo(PRIME_SIEVE_LIMIT))
+        {
+            int first = start.mod(BigInteger.valueOf(p)).intValue();
+            if (first != 0)
+                first = p - first;
+            
+            // Don't strike out p itself, i.e. start at p^2 if that is in the segment.
+            if (start.bitLength() < 63 && start.longValue() + first < (long)p * p)
+                first = (int)Math.min(length, (long)p * p - start.longValue());
+            for (int i = first; i < length; i += p)
+                composite[i] = true;
+        }
+        for (int i = 0; i < length && start.compareTo(BigInteger.valueOf(2 - i)) < 0; i++)
+            composite[i] = true;
+        return composite;
+    }
+    
+    // Returns the first probable prime >= n, like NextProbablePrime in Velthuis.BigIntegers.Primes.
+    static BigInteger nextPrime(BigInteger n)
+    {
+        BigInteger segmentLength = BigInteger.valueOf(PRIME_SEGMENT_LENGTH);
+        
+        for (BigInteger start = n; ; start = start.add(segmentLength))
+        {
+            boolean[] composite = sieveSegment(start, PRIME_SEGMENT_LENGTH);
+            for (int i = 0; i < PRIME_SEGMENT_LENGTH; i++)
+                if (!composite[i])
+                {
+                    BigInteger candidate = start.add(BigInteger.valueOf(i));
+                    if (candidate.isProbablePrime(PRIME_CERTAINTY))
+                        return candidate;
+                }
+        }
+    }
+    
+    // Same as IsWitness(A, N) in Velthuis.BigIntegers.Primes: true if a proves that the odd 
+    // number n is composite.
+    static boolean isWitness(BigInteger a, BigInteger n)
+    {
+        BigInteger nLessOne = n.subtract(BigInteger.ONE);
+        int s = nLessOne.getLowestSetBit();
+        BigInteger x = a.modPow(nLessOne.shiftRight(s), n);
+        
+        if (x.equals(BigInteger.ONE))
+            return false;
+        for (int i = 0; i < s; i++)
+        {
+            if (x.equals(nLessOne))
+                return false;
+            x = x.multiply(x).mod(n);
+        }
+        return true;
+    }
+    
+    // Expected result of IsPrime(N, Precision) in Velthuis.BigIntegers.Primes, which is only 
+    // deterministic up to PRIME_DETERMINISTIC_LIMIT.
+    static String primality(BigInteger n)
+    {
+        if (!n.isProbablePrime(PRIME_CERTAINTY))
+            return "primComposite";
+        return n.compareTo(PRIME_DETERMINISTIC_LIMIT) <= 0 ? "primPrime" : "primProbablyPrime";
+    }
+    
+    static BigInteger randomPrimeOperand(int bits, XorShifts.XorShift64 random)
+    {
+        return RandomNumbers.createBigInteger(bits, random).setBit(bits - 1);
+    }
+    
+    static void generatePrimeResults(BufferedWriter bw) throws IOException
+    {
+        writeln(bw, "const");
+        generatePrimeRangeResults(bw);
+        generateNextPrimeResults(bw);
+        generateIsPrimeResults(bw);
+        generateWitnessResults(bw);
+    }
+    
+    static void generatePrimeRangeResults(BufferedWriter bw) throws IOException
+    {
+        int count = PRIME_BITS.length * PRIME_SAMPLES;
+        BigInteger[] bases = new BigInteger[count];
+        XorShifts.XorShift64 random = new XorShifts.XorShift64(PRIME_SEED);
+        
+        // Sieve all ranges, then test all survivors of all ranges in one go, for a better 
+        // distribution of the work.
+        ArrayList<Integer> candidates = new ArrayList<>();
+        for (int r = 0; r < count; r++)
+        {
+            bases[r] = randomPrimeOperand(PRIME_BITS[r / PRIME_SAMPLES], random.split(r));
+            boolean[] composite = sieveSegment(bases[r], PRIME_RANGE_LENGTH);
+            for (int i = 0; i < PRIME_RANGE_LENGTH; i++)
+                if (!composite[i])
+                    candidates.add(r * PRIME_RANGE_LENGTH + i);
+        }
+        
+        writeln("Testing %d of %d numbers in %d prime ranges...", candidates.size(), count * PRIME_RANGE_LENGTH, count);
+        boolean[] isPrime = new boolean[count * PRIME_RANGE_LENGTH];
+        candidates.parallelStream().forEach(c -> 
+            isPrime[c] = bases[c / PRIME_RANGE_LENGTH].add(BigInteger.valueOf(c % PRIME_RANGE_LENGTH)).isProbablePrime(PRIME_CERTAINTY));
+        
+        String[] baseStrings = new String[count];
+        String[] offsets = new String[count];
+        for (int r = 0; r < count; r++)
+        {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < PRIME_RANGE_LENGTH; i++)
+                if (isPrime[r * PRIME_RANGE_LENGTH + i])
+                    sb.append(sb.length() > 0 ? "," : "").append(i);
+            baseStrings[r] = bases[r].toString();
+            offsets[r] = sb.toString();
+        }
+        
+        writeln(bw, "  PrimeRangeCount = %d;", count);
+        writeln(bw, "  PrimeRangeLength = %d;", PRIME_RANGE_LENGTH);
+        writeln(bw);
+        writeln(bw, "  // IsProbablePrime(PrimeRangeBases[I] + J) is true only for the offsets J in PrimeRangeOffsets[I].");
+        writeStringArray(bw, "PrimeRangeBases", "PrimeRangeCount", baseStrings);
+        writeStringArray(bw, "PrimeRangeOffsets", "PrimeRangeCount", offsets);
+    }
+    
+    static void generateNextPrimeResults(BufferedWriter bw) throws IOException
+    {
+        int count = PRIME_BITS.length * PRIME_SAMPLES;
+        BigInteger[] arguments = new BigInteger[count];
+        int[] distances = new int[count];
+        XorShifts.XorShift64 random = new XorShifts.XorShift64(PRIME_SEED + 1);
+        
+        for (int i = 0; i < count; i++)
+            arguments[i] = randomPrimeOperand(PRIME_BITS[i / PRIME_SAMPLES], random.split(i));
+        
+        writeln("Generating %d next prime results...", count);
+        IntStream.range(0, count).parallel().forEach(i -> 
+            distances[i] = nextPrime(arguments[i]).subtract(arguments[i]).intValueExact());
+        
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++)
+            strings[i] = arguments[i].toString();
+        
+        writeln(bw, "  NextPrimeCount = %d;", count);
+        writeln(bw);
+        writeln(bw, "  // NextProbablePrime(NextPrimeArguments[I]) = NextPrimeArguments[I] + NextPrimeDistances[I].");
+        writeStringArray(bw, "NextPrimeArguments", "NextPrimeCount", strings);
+        writeln(bw, "  NextPrimeDistances: array[0..NextPrimeCount - 1] of Integer =");
+        writeln(bw, "  (");
+        for (int i = 0; i < count; i++)
+            writeln(bw, "    %d%s // %d bits", distances[i], i == count - 1 ? " " : ",", arguments[i].bitLength());
+        writeln(bw, "  );");
+        writeln(bw);
+    }
+    
+    static void generateIsPrimeResults(BufferedWriter bw) throws IOException
+    {
+        ArrayList<BigInteger> arguments = new ArrayList<>();
+        for (String s: PRIME_SPECIALS)
+            arguments.add(new BigInteger(s));
+        for (int e: MERSENNE_EXPONENTS)
+            arguments.add(BigInteger.ONE.shiftLeft(e).subtract(BigInteger.ONE));
+        int count = arguments.size();
+        String[] results = new String[count];
+        
+        writeln("Generating %d IsPrime results...", count);
+        IntStream.range(0, count).parallel().forEach(i -> results[i] = primality(arguments.get(i)));
+        
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++)
+            strings[i] = arguments.get(i).toString();
+        
+        writeln(bw, "  IsPrimeCount = %d;", count);
+        writeln(bw);
+        writeStringArray(bw, "IsPrimeArguments", "IsPrimeCount", strings);
+        writeln(bw, "  IsPrimeResults: array[0..IsPrimeCount - 1] of TPrimality =");
+        writeln(bw, "  (");
+        for (int i = 0; i < count; i++)
+            writeln(bw, "    %s%s // (%d)", results[i], i == count - 1 ? " " : ",", i);
+        writeln(bw, "  );");
+        writeln(bw);
+    }
+    
+    static void generateWitnessResults(BufferedWriter bw) throws IOException
+    {
+        ArrayList<BigInteger> moduli = new ArrayList<>();
+        for (String s: WITNESS_MODULI)
+            moduli.add(new BigInteger(s));
+        
+        // For each size, a prime, a product of two primes of half the size and a random odd number.
+        XorShifts.XorShift64 random = new XorShifts.XorShift64(PRIME_SEED + 2);
+        int first = moduli.size();
+        for (int b = 0; b < PRIME_BITS.length; b++)
+            for (int k = 0; k < 3; k++)
+                moduli.add(null);
+        
+        writeln("Generating witness moduli...");
+        IntStream.range(0, 3 * PRIME_BITS.length).parallel().forEach(n -> 
+        {
+            int bits = PRIME_BITS[n / 3];
+            XorShifts.XorShift64 r = random.split(n);
+            BigInteger modulus;
+            switch (n % 3)
+            {
+                case 0:
+                    modulus = nextPrime(randomPrimeOperand(bits, r));
+                    break;
+                case 1:
+                    modulus = nextPrime(randomPrimeOperand(bits / 2, r)).multiply(nextPrime(randomPrimeOperand(bits / 2, r)));
+                    break;
+                default:
+                    modulus = randomPrimeOperand(bits, r).setBit(0);
+            }
+            moduli.set(first + n, modulus);
+        });
+        
+        int count = moduli.size();
+        boolean[][] results = new boolean[count][WITNESS_BASES.length];
+        
+        writeln("Generating %d witness results...", count * WITNESS_BASES.length);
+        IntStream.range(0, count * WITNESS_BASES.length).parallel().forEach(n -> 
+            results[n / WITNESS_BASES.length][n % WITNESS_BASES.length] = 
+                isWitness(BigInteger.valueOf(WITNESS_BASES[n % WITNESS_BASES.length]), moduli.get(n / WITNESS_BASES.length)));
+        
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++)
+            strings[i] = moduli.get(i).toString();
+        
+        writeln(bw, "  WitnessModulusCount = %d;", count);
+        writeln(bw, "  WitnessBaseCount = %d;", WITNESS_BASES.length);
+        writeln(bw);
+        writeln(bw, "  WitnessBases: array[0..WitnessBaseCount - 1] of Integer =");
+        writeln(bw, "  (");
+        bw.write("    ");
+        for (int i = 0; i < WITNESS_BASES.length; i++)
+            bw.write(String.format("%d%s", WITNESS_BASES[i], i == WITNESS_BASES.length - 1 ? "" : ", "));
+        writeln(bw);
+        writeln(bw, "  );");
+        writeln(bw);
+        writeStringArray(bw, "WitnessModuli", "WitnessModulusCount", strings);
+        writeln(bw, "  // IsWitness(WitnessBases[J], WitnessModuli[I]) = WitnessResults[I, J].");
+        writeln(bw, "  WitnessResults: array[0..WitnessModulusCount - 1, 0..WitnessBaseCount - 1] of Boolean =");
+        writeln(bw, "  (");
+        for (int i = 0; i < count; i++)
+        {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < WITNESS_BASES.length; j++)
+                sb.append(j > 0 ? ", " : "").append(bool(results[i][j]));
+            writeln(bw, "    (%s)%s // (%d)", sb, i == count - 1 ? " " : ",", i);
+        }
+        writeln(bw, "  );");
+        writeln(bw);
+    }
+    
+    // Invariant tier. Stored results are limited by what fits in a file, so this tier writes a 
+    // hash of the results of each block of random operand pairs instead, which lets the tests 
+    // check millions of cases per run. The operands of block B come from the stream 
+    // SplitMix64(INVARIANT_SEED).split(B), so the tests can regenerate them, check the invariants
+    //   Division: Q * B + R = A, with |R| < |B| and R = 0 or Sign(R) = Sign(A),
+    //   GCD:      G divides A and B, and X * |A| mod |B| = 1 for the inverse X = InvMod(|A|, |B|),
+    //   Shift:    A shl S = A * 2^S and A shr S = A div 2^S, rounded towards negative infinity,
+    // and compare the hashes of Q and R, G, X (0 if there is none), and A shl S and A shr S with
+    // the ones in the file. With -operands, the operands are written too.
+    static BigInteger invariantOperand(XorShifts.SplitMix64 random, boolean nonZero)
+    {
+        int maxBits = INVARIANT_BITS[random.nextInteger(INVARIANT_BITS.length)];
+        BigInteger value = RandomNumbers.createBigInteger(random.nextInteger(1, maxBits + 1), random);
+        if (nonZero && value.signum() == 0)
+            value = BigInteger.ONE;
+        return random.nextInteger(2) == 0 ? value : value.negate();
+    }
+    
+    static String generateInvariantBlock(int block, int count, boolean withOperands)
+    {
+        XorShifts.SplitMix64 random = new XorShifts.SplitMix64(INVARIANT_SEED).split(block);
+        long[] hashes = new long[INVARIANT_SECTIONS.length];
+        StringBuilder sb = new StringBuilder();
+        
+        for (int i = 0; i < count; i++)
+        {
+            BigInteger a = invariantOperand(random, false);
+            BigInteger b = invariantOperand(random, true);
+            int shift = random.nextInteger(INVARIANT_MAX_SHIFT);
+            if (withOperands)
+                sb.append(String.format("Case %d %s %s %d%n", (long)block * INVARIANT_BLOCK_SIZE + i, toHex(a), toHex(b), shift));
+            
+            BigInteger[] quotRem = a.divideAndRemainder(b);
+            hashes[0] = InvariantHashes.add(InvariantHashes.add(hashes[0], quotRem[0]), quotRem[1]);
+            BigInteger gcd = a.gcd(b);
+            hashes[1] = InvariantHashes.add(hashes[1], gcd);
+            BigInteger modulus = b.abs();
+            hashes[2] = InvariantHashes.add(hashes[2], gcd.equals(BigInteger.ONE) && !modulus.equals(BigInteger.ONE) ? a.abs().modInverse(modulus) : BigInteger.ZERO);
+            hashes[3] = InvariantHashes.add(InvariantHashes.add(hashes[3], a.shiftLeft(shift)), a.shiftRight(shift));
+        }
+        
+        sb.append(String.format("Block %d %d", block, count));
+        for (long hash: hashes)
+            sb.append(String.format(" $%016X", hash));
+        return sb.toString();
+    }
+    
+    static void generateInvariantResults(BufferedWriter bw) throws IOException
+    {
+        long cases = Long.parseLong(getOptionValue("-cases", INVARIANT_CASES));
+        int blocks = (int)((cases + INVARIANT_BLOCK_SIZE - 1) / INVARIANT_BLOCK_SIZE);
+        boolean withOperands = isOptionSet("-operands");
+        
+        writeln(bw, "// Each block line has the hashes of the results of Count cases, in the order below. The");
+        writeln(bw, "// operands of block B come from SplitMix64(Seed).split(B) (see generator). Case lines, if");
+        writeln(bw, "// any, have the (hexadecimal) operands A and B and the shift S of the case.");
+        writeln(bw, "//");
+        writeln(bw, "//   Case <Index> <A> <B> <S>");
+        writeln(bw, "//   Block <Index> <Count> <%s>", String.join("> <", INVARIANT_SECTIONS));
+        writeln(bw);
+        writeln(bw, "Seed $%016X", INVARIANT_SEED);
+        writeln(bw, "Cases %d", cases);
+        writeln(bw, "BlockSize %d", INVARIANT_BLOCK_SIZE);
+        writeln(bw, "HashBase $%016X", InvariantHashes.BASE);
+        writeln(bw);
+        
+        writeln("Generating %d invariant cases...", cases);
+        computeOrdered(blocks, 
+        block -> generateInvariantBlock(block, (int)Math.min(INVARIANT_BLOCK_SIZE, cases - (long)block * INVARIANT_BLOCK_SIZE), withOperands), 
+        (block, lines) -> 
+        {
+            bw.write(lines);
+            bw.newLine();
+        });
+    }
+    
+    // Binary exponents of the double sweep tier. 2^-1074 is the smallest denormal.
+    static final int MIN_DOUBLE_EXPONENT = -1074;
+    static final int MAX_DOUBLE_EXPONENT = 1023;
+    
+    // Parse tier. A corpus of random TryParse cases, for all BASES and for the default base with 
+    // a base prefix, with signs, whitespace, separators, invalid characters and lengths of up 
+    // to PARSE_MAX_LENGTH. The cases of block B come from SplitMix64(PARSE_SEED).split(B), so 
+    // the blocks are generated in parallel and then streamed to the file in order. The expected
+    // results come from tryParse, which follows the Delphi code, and not from Java's parser, 
+    // which does not know separators and prefixes.
+    
+    // Same as BigInteger.TryParse(S, Base, Value), but returns null on failure. Java's trim() 
+    // removes the same characters (<= ' ') as Delphi's Trim.
+    static BigInteger tryParse(String s, int base)
+    {
+        String trimmed = s.trim();
+        if (trimmed.isEmpty())
+            return null;
+        
+        int i = 0;
+        boolean isNegative = false;
+        if (trimmed.charAt(0) == '-' || trimmed.charAt(0) == '+')
+        {
+            isNegative = trimmed.charAt(0) == '-';
+            i++;
+        }
+        
+        char[] digits = new char[trimmed.length() - i];
+        int count = 0;
+        for (; i < trimmed.length(); i++)
+        {
+            char c = trimmed.charAt(i);
+            if (c == '_' || c == ' ' || c == ',')
+                continue;
+            if (parseDigitValue(c) >= base)
+                return null;
+            digits[count++] = c;
+        }
+        
+        BigInteger value = parseDigits(digits, 0, count, base);
+        return isNegative ? value.negate() : value;
+    }
+    
+    // Value of an ASCII digit or letter (case insensitive), 36 or more for anything else.
+    static int parseDigitValue(char c)
+    {
+        if (c >= '0' && c <= '9')
+            return c - '0';
+        if (c >= 'a' && c <= 'z')
+            return c - 'a' + 10;
+        if (c >= 'A' && c <= 'Z')
+            return c - 'A' + 10;
+        return 36;
+    }
+    
+    // Same as BigInteger.TryParse(S, Value), with the default base 10, including its quirks, 
+    // e.g. a second sign after the prefix, which is parsed by TryParse(S, Base, Value).
+    static BigInteger tryParse(String s)
+    {
+        String trimmed = s.trim().toUpperCase(Locale.ROOT);
+        if (trimmed.isEmpty())
+            return null;
+        
+        int i = 0;
+        boolean isNegative = false;
+        if (trimmed.charAt(0) == '-' || trimmed.charAt(0) == '+')
+        {
+            isNegative = trimmed.charAt(0) == '-';
+            i++;
+        }
+        
+        int base = 10;
+        char c = i < trimmed.length() ? trimmed.charAt(i) : 0;
+        if (c == '$')
+        {
+            i++;
+            base = 16;
+        }
+        else if (c == '0')
+        {
+            i++;
+            c = i < trimmed.length() ? trimmed.charAt(i) : 0;
+            switch (c)
+            {
+                case 0:
+                    return BigInteger.ZERO;
+                case 'B':
+                    base = 2;
+                    break;
+                case 'O':
+                case 'K':
+                    base = 8;
+                    break;
+                case 'X':
+                    base = 16;
+                    break;
+                case 'D':
+                    base = 10;
+                    break;
+                default:
+                    i--;
+            }
+            i++;
+        }
+        else if (c == '%')
+        {
+            int newBase = 0;
+            for (i++; i >= trimmed.length() || trimmed.charAt(i) != 'R'; i++)
+            {
+                if (i >= trimmed.length())
+                    return null;
+                newBase = newBase * 10 + trimmed.charAt(i) - '0';
+            }
+            i++;
+            if (newBase < 2 || newBase > 36)
+                return null;
+            base = newBase;
+        }
+        
+        BigInteger value = tryParse(trimmed.substring(i), base);
+        return value != null && isNegative ? value.negate() : value;
+    }
+    
+    // Converts digits[from..to - 1] by splitting off a low part of PARSE_CHUNK * 2^k digits, so 
+    // only a few, cached powers of the base are needed, and long strings do not take quadratic time.
+    static BigInteger parseDigits(char[] digits, int from, int to, int base)
+    {
+        if (to - from <= PARSE_CHUNK)
+            return to == from ? BigInteger.ZERO : new BigInteger(new String(digits, from, to - from), base);
+        
+        int k = 0;
+        while ((long)PARSE_CHUNK << (k + 1) < to - from)
+            k++;
+        int lowLength = PARSE_CHUNK << k;
+        BigInteger high = parseDigits(digits, from, to - lowLength, base);
+        BigInteger low = parseDigits(digits, to - lowLength, to, base);
+        BigInteger power = parsePowers.computeIfAbsent(base * 32 + k, key -> BigInteger.valueOf(base).pow(lowLength));
+        return high.multiply(power).add(low);
+    }
+    
+    static ConcurrentHashMap<Integer, BigInteger> parsePowers = new ConcurrentHashMap<>();
+    
+    // Mostly short strings, but also some very long ones.
+    static int parseLength(XorShifts.SplitMix64 random)
+    {
+        int r = random.nextInteger(1000);
+        if (r < 700)
+            return random.nextInteger(1, 21);
+        if (r < 950)
+            return random.nextInteger(21, 201);
+        if (r < 995)
+            return random.nextInteger(201, 2001);
+        return random.nextInteger(2001, PARSE_MAX_LENGTH + 1);
+    }
+    
+    static void appendWhitespace(StringBuilder sb, XorShifts.SplitMix64 random)
+    {
+        if (random.nextInteger(4) == 0)
+            for (int n = random.nextInteger(1, 4); n > 0; n--)
+                sb.append(random.nextInteger(2) == 0 ? ' ' : '\t');
+    }
+    
+    // Returns a random parse string for the given base (0 = default base, with a random prefix).
+    // Digits are uniformly distributed, with letters in random case.
+    static String generateParseString(int base, XorShifts.SplitMix64 random)
+    {
+        if (random.nextInteger(64) == 0)
+            return PARSE_SPECIALS[random.nextInteger(PARSE_SPECIALS.length)];
+        
+        StringBuilder sb = new StringBuilder();
+        appendWhitespace(sb, random);
+        int sign = random.nextInteger(4);
+        if (sign < 2)
+            sb.append(sign == 0 ? '-' : '+');
+        
+        int digitBase = base;
+        if (base == 0)
+        {
+            int prefix = random.nextInteger(PARSE_PREFIXES.length);
+            digitBase = PARSE_PREFIX_BASES[prefix];
+            sb.append(PARSE_PREFIXES[prefix]);
+            if (digitBase == 0)
+            {
+                digitBase = random.nextInteger(2, 37);
+                sb.append(digitBase).append(random.nextInteger(2) == 0 ? 'r' : 'R');
+            }
+        }
+        
+        boolean withSeparators = random.nextInteger(4) == 0;
+        int start = sb.length();
+        for (int length = parseLength(random); length > 0; length--)
+        {
+            if (withSeparators && random.nextInteger(8) == 0)
+                sb.append(PARSE_SEPARATORS.charAt(random.nextInteger(PARSE_SEPARATORS.length())));
+            char c = PARSE_CHARS.charAt(random.nextInteger(digitBase));
+            sb.append(random.nextInteger(2) == 0 ? c : Character.toLowerCase(c));
+        }
+        
+        // Invalid strings: an invalid character, a digit that is too large for the base, or a 
+        // misplaced sign or tab.
+        if (random.nextInteger(4) == 0)
+        {
+            int position = random.nextInteger(start, sb.length() + 1);
+            switch (random.nextInteger(3))
+            {
+                case 0:
+                    sb.insert(position, PARSE_INVALID_CHARS.charAt(random.nextInteger(PARSE_INVALID_CHARS.length())));
+                    break;
+                case 1:
+                    sb.insert(position, digitBase < 36 ? PARSE_CHARS.charAt(random.nextInteger(digitBase, 36)) : '?');
+                    break;
+                default:
+                    sb.insert(position, "-+\t".charAt(random.nextInteger(3)));
+            }
+        }
+        appendWhitespace(sb, random);
+        return sb.toString();
+    }
+    
+    static String generateParseBlock(int block, int count)
+    {
+        XorShifts.SplitMix64 random = new XorShifts.SplitMix64(PARSE_SEED).split(block);
+        StringBuilder sb = new StringBuilder();
+        
+        for (int i = 0; i < count; i++)
+        {
+            int index = random.nextInteger(BASES.length + 1);
+            int base = index < BASES.length ? BASES[index] : 0;
+            String s = generateParseString(base, random);
+            BigInteger value = base == 0 ? tryParse(s) : tryParse(s, base);
+            sb.append(String.format("%d %d %s %s ", (long)block * PARSE_BLOCK_SIZE + i, base, value != null ? "True" : "False", value != null ? toHex(value) : "-"));
+            sb.append(s);
+            if (i < count - 1)
+                sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+    
+    static void generateParseResults(BufferedWriter bw) throws IOException
+    {
+        long cases = Long.parseLong(getOptionValue("-parsecases", PARSE_CASES));
+        int blocks = (int)((cases + PARSE_BLOCK_SIZE - 1) / PARSE_BLOCK_SIZE);
+        
+        writeln(bw, "// Each line is a TryParse case. Base 0 means TryParse(S, Value), with the default base 10,");
+        writeln(bw, "// otherwise it is TryParse(S, Base, Value). The value is hexadecimal, or - if TryParse fails.");
+        writeln(bw, "// The string is the rest of the line after the single space following the value, and can");
+        writeln(bw, "// have leading and trailing spaces and tabs.");
+        writeln(bw, "//");
+        writeln(bw, "//   <Index> <Base> <Result> <Value> <String>");
+        writeln(bw);
+        
+        writeln("Generating %d parse cases...", cases);
+        computeOrdered(blocks, 
+        block -> generateParseBlock(block, (int)Math.min(PARSE_BLOCK_SIZE, cases - (long)block * PARSE_BLOCK_SIZE)), 
+        (block, lines) -> 
+        {
+            bw.write(lines);
+            bw.newLine();
+        });
+    }
+    
+    // Double sweep tier. For every binary exponent, the doubles at the boundaries of the binade 
+    // (powers of two and their neighbours, the largest double of the binade, values with a half)
+    // with the results of BigInteger.Create(D), and the BigIntegers at the rounding boundaries 
+    // (powers of two, halfway cases that round to even, up or down, and their neighbours) with
+    // the results of AsDouble. Doubles are written as their bits, BigIntegers in hexadecimal.
+    static String generateCreateSweep(int exponent)
+    {
+        double power = Math.scalb(1.0, exponent);
+        double[] candidates = 
+        { 
+            power, Math.nextUp(power), Math.nextDown(power), 1.5 * power, Math.nextDown(2.0 * power), 
+            power + 0.5, power - 0.5 
+        };
+        LinkedHashSet<Double> doubles = new LinkedHashSet<>();
+        for (double d: candidates)
+        {
+            doubles.add(d);
+            doubles.add(-d);
+        }
+        
+        StringBuilder sb = new StringBuilder();
+        for (double d: doubles)
+        {
+            if (sb.length() > 0)
+                sb.append(System.lineSeparator());
+            sb.append(String.format("Create $%016X %s", Double.doubleToRawLongBits(d), toHex(new BigDecimal(d).toBigInteger())));
+        }
+        return sb.toString();
+    }
+    
+    static String generateAsDoubleSweep(int exponent)
+    {
+        BigInteger power = BigInteger.ONE.shiftLeft(exponent);
+        LinkedHashSet<BigInteger> values = new LinkedHashSet<>();
+        values.add(power.subtract(BigInteger.ONE));
+        values.add(power);
+        values.add(power.add(BigInteger.ONE));
+        if (exponent > 52)
+        {
+            // Halfway between 2^e and the next double (rounds down, to even), between the next 
+            // two doubles (rounds up, to even) and between the largest double of the binade 
+            // and 2^(e + 1) (rounds up), and their neighbours.
+            BigInteger half = BigInteger.ONE.shiftLeft(exponent - 53);
+            BigInteger[] ties = { power.add(half), power.add(half.multiply(BigInteger.valueOf(3))), power.shiftLeft(1).subtract(half) };
+            for (BigInteger tie: ties)
+            {
+                values.add(tie.subtract(BigInteger.ONE));
+                values.add(tie);
+                values.add(tie.add(BigInteger.ONE));
+            }
+        }
+        
+        StringBuilder sb = new StringBuilder();
+        for (BigInteger value: values)
+            for (BigInteger signed: new BigInteger[] { value, value.negate() })
+            {
+                if (sb.length() > 0)
+                    sb.append(System.lineSeparator());
+                sb.append(String.format("AsDouble %s $%016X", toHex(signed), Double.doubleToRawLongBits(signed.doubleValue())));
+            }
+        return sb.toString();
+    }
+    
+    static void generateDoubleSweepResults(BufferedWriter bw) throws IOException
+    {
+        int createCount = MAX_DOUBLE_EXPONENT - MIN_DOUBLE_EXPONENT + 1;
+        
+        writeln(bw, "// Doubles are written as the hexadecimal value of their bits, BigIntegers in hexadecimal.");
+        writeln(bw, "//");
+        writeln(bw, "//   Create <Double> <BigInteger.Create(Double)>");
+        writeln(bw, "//   AsDouble <BigInteger> <BigInteger.AsDouble>");
+        writeln(bw);
+        
+        writeln("Generating Create results for exponents %d..%d...", MIN_DOUBLE_EXPONENT, MAX_DOUBLE_EXPONENT);
+        computeOrdered(createCount, n -> generateCreateSweep(MIN_DOUBLE_EXPONENT + n), (n, lines) -> writeln(bw, lines));
+        writeln(bw);
+        
+        // Exponent MAX_DOUBLE_EXPONENT + 1 gives the overflows to infinity.
+        writeln("Generating AsDouble results for exponents 0..%d...", MAX_DOUBLE_EXPONENT + 1);
+        computeOrdered(MAX_DOUBLE_EXPONENT + 2, n -> generateAsDoubleSweep(n), (n, lines) -> writeln(bw, lines));
+    }
+    
     ///////////////////////////////////////////////////////////////////////////
     ///  Test data                                                          ///
     ///////////////////////////////////////////////////////////////////////////
@@ -1697,6 +3349,116 @@ public class BigIntegerTestDataGenerator
        1, 4, 10, 100, 1000
     };
     
+    // Bit positions and shift counts of up to 2^24, for the Large* bitwise sections.
+    static int[] LARGE_BITS = new int[]
+    {
+        0, 1, 31, 32, 33, 63, 64, 65, 1000, 1023, 1024, 1025, 65535, 65536, 
+        100000, 1000000, 16777215, 16777216
+    };
+    
+    static int[] LARGE_SHIFTS = new int[]
+    {
+        0, 1, 31, 32, 33, 63, 64, 65, 164, 1000, 1024, 65535, 65536, 
+        1000000, 16777215, 16777216
+    };
+    
+    // Consecutive values reuse the cached factorial of their predecessor. The large factorials
+    // are written as string constants, the huge ones to a text file.
+    static int[] LARGE_FACTORIALS = new int[]
+    {
+        1000, 1001, 2000, 5000, 10000
+    };
+    static int[] HUGE_FACTORIALS = new int[]
+    {
+        10001, 20000, 50000, 99999, 100000
+    };
+    
+    // Sizes, in bits, of the random numbers of the primality tier.
+    static final int[] PRIME_BITS = { 64, 128, 256, 512, 1024, 2048, 4096 };
+    static final int PRIME_SAMPLES = 4;
+    static final int PRIME_RANGE_LENGTH = 1024;
+    static final int PRIME_SEGMENT_LENGTH = 4096;
+    static final int PRIME_SIEVE_LIMIT = 65536;
+    static final int PRIME_CERTAINTY = 100;
+    static final long PRIME_SEED = 20180303L;
+    static final BigInteger PRIME_DETERMINISTIC_LIMIT = new BigInteger("341550071728321");
+    
+    // Small primes and composites, Carmichael numbers and strong pseudoprimes to the first few 
+    // prime bases, which fool Miller-Rabin tests with only those bases.
+    static final String[] PRIME_SPECIALS = 
+    {
+        "2", "3", "4", "5", "9", "15", "17", "25", "97", "561", "1105", "1729", "2047", "65537", 
+        "1373653", "25326001", "3215031751", "2152302898747", "3474749660383", "341550071728321", 
+        "341550071728331", "3825123056546413051", "318665857834031151167461", 
+        "3317044064679887385961981"
+    };
+    
+    // Prime and composite Mersenne numbers 2^e - 1.
+    static final int[] MERSENNE_EXPONENTS = { 61, 67, 89, 127, 257, 521, 607, 1279, 2203, 2281, 3217, 4093 };
+    
+    static final String[] WITNESS_MODULI = 
+    {
+        "561", "1105", "1729", "2047", "2465", "2821", "3277", "4033", "4681", "6601", "8321", "8911", 
+        "1373653", "25326001", "3215031751", "2152302898747", "3474749660383", "341550071728321", 
+        "3825123056546413051", "318665857834031151167461", "3317044064679887385961981"
+    };
+    static final int[] WITNESS_BASES = { 2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41 };
+    
+    // Invariant tier. Operands have random sizes of up to one of INVARIANT_BITS bits. Use e.g.
+    // -cases=1000000000 to change the number of cases.
+    static final String INVARIANT_CASES = "1000000";
+    static final int INVARIANT_BLOCK_SIZE = 4096;
+    static final int[] INVARIANT_BITS = { 64, 256, 1024, 4096 };
+    static final int INVARIANT_MAX_SHIFT = 4096;
+    static final long INVARIANT_SEED = 20190404L;
+    static final String[] INVARIANT_SECTIONS = { "Division", "GCD", "InvMod", "Shift" };
+    
+    // Parse tier. Use e.g. -parsecases=10000000 to change the number of cases.
+    static final String PARSE_CASES = "100000";
+    static final int PARSE_BLOCK_SIZE = 1024;
+    static final int PARSE_MAX_LENGTH = 100000;
+    static final int PARSE_CHUNK = 1024;
+    static final long PARSE_SEED = 20190505L;
+    static final String PARSE_CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    static final String PARSE_SEPARATORS = "_ ,";
+    static final String PARSE_INVALID_CHARS = "!\"#$%&'()*./:;<=>?@[\\]^`{|}~";
+    
+    // Base prefixes of TryParse(S, Value) and their bases. 0 is for %nnR, with a random base nn.
+    static final String[] PARSE_PREFIXES = { "", "$", "0x", "0X", "0b", "0B", "0o", "0k", "0d", "%" };
+    static final int[] PARSE_PREFIX_BASES = { 10, 16, 16, 16, 2, 2, 8, 8, 10, 0 };
+    
+    // Empty strings, lone signs, prefixes and separators, and invalid %nnR prefixes.
+    static final String[] PARSE_SPECIALS = 
+    {
+        "", " ", "\t", "-", "+", "--1", "+-1", "_", ",", " , ", "- ", "$", "-$", "0", "-0", "00", "0x", 
+        "0b2", "0o8", "0d", "$-1", "%", "%r", "%1r1", "%36r", "%37r1", "%10r-1", "%2R 1_0"
+    };
+    
+    // Sizes (in 32 bit limbs) and patterns of the operands of the large stress tier. Use e.g. 
+    // -limbs=64,256,1024,16384,262144 to change the sizes. 
+    static final String LARGE_LIMBS = "64,256,1024,16384";
+    static final String[] LARGE_PATTERNS = { "Random", "NegativeRandom", "AllOnes", "PowerOfTwo" };
+    static final long LARGE_SEED = 20170202L;
+    static final int[] LARGE_ROOT_INDICES = { 2, 3, 5, 16, 64 };
+    
+    // Range of indices of the NthRoot results.
+    static final int MIN_ROOT_INDEX = 2;
+    static final int MAX_ROOT_INDEX = 64;
+    
+    // Bit sizes for the ModPow stress tier. These are the RSA-sized cases.
+    static int[] MODPOW_EXPONENT_BITS = new int[]
+    {
+        1, 2, 17, 64, 256, 1024, 2048, 4096, 8192
+    };
+    
+    static int[] MODPOW_MODULUS_BITS = new int[]
+    {
+        64, 256, 512, 1024, 2048, 4096
+    };
+    
+    static final int MODPOW_SAMPLES = 2;
+    static final long MODPOW_SEED = 20170101L;
+    
     static int[] BASES = new int[]
     {
         2, 3, 8, 9, 10, 11, 16, 17, 36
@@ -0,0 +1,49 @@
+/*****************************************************************************/
+/* File:       InvariantHashes.java                                          */
+/* Function:   The hash used by the invariant tiers of the test data         */
+/*             generators. The tests hash their results the same way and     */
+/*             compare them with the hashes in the generated files.          */
+/* Language:   Java 8                                                        */
+/* Notes:      - The BigInteger and BigRational generators contain the same  */
+/*               copy of this file (apart from the package), so their        */
+/*               hashes are the same. Change them together.                  */
+/*****************************************************************************/
+
+package bigintegertestdatagenerator;
+
+import java.math.BigInteger;
+
+public final class InvariantHashes
+{
+
+    private InvariantHashes()
+    {
+    }
+
+    public static final long MODULUS = (1L << 61) - 1;
+    public static final long BASE = 0x00F1E2D3C4B5A697L;
+
+    static final BigInteger BIG_MODULUS = BigInteger.valueOf(MODULUS);
+
+    // (a * b) mod 2^61 - 1, for a, b < 2^61 - 1, without 128 bit multiplication. Uses 
+    // 2^61 = 1 and 2^64 = 8 (mod 2^61 - 1).
+    public static long mulMod61(long a, long b)
+    {
+        long a1 = a >>> 32, a0 = a & 0xFFFFFFFFL;
+        long b1 = b >>> 32, b0 = b & 0xFFFFFFFFL;
+        long low = a0 * b0;
+        long middle = a1 * b0 + a0 * b1;
+        long sum = ((a1 * b1) << 3) + (middle >>> 29) + ((middle & 0x1FFFFFFFL) << 32) + (low & MODULUS) + (low >>> 61);
+        sum = (sum & MODULUS) + (sum >>> 61);
+        return sum >= MODULUS ? sum - MODULUS : sum;
+    }
+
+    // Hash = (Hash * BASE + Value mod (2^61 - 1)) mod (2^61 - 1), where mod returns a 
+    // non-negative result.
+    public static long add(long hash, BigInteger value)
+    {
+        hash = mulMod61(hash, BASE) + value.mod(BIG_MODULUS).longValue();
+        return hash >= MODULUS ? hash - MODULUS : hash;
+    }
+
+}
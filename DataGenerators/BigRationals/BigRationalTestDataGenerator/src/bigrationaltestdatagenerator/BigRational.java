@@ -28,9 +28,7 @@
  ******************************************************************************/
 package bigrationaltestdatagenerator;
 
-import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.math.RoundingMode;
 
 public class BigRational implements Comparable<BigRational> 
 {
@@ -41,6 +39,7 @@ public class BigRational implements Comparable<BigRational>
 
     private BigInteger num;   // the numerator
     private BigInteger den;   // the denominator
+    private int hash;         // cached hash code, 0 if not calculated yet
 
 
     // create and initialize a new BigRational object
@@ -53,22 +52,65 @@ public class BigRational implements Comparable<BigRational>
         this(numerator, 1);
     }
 
-    // create and initialize a new BigRational object from a string, e.g., "-343/1273"
+    // create and initialize a new BigRational object from a string, e.g., "-343/1273"; like
+    // the former s.split("/"), trailing slashes are ignored, and a third part is an error
     public BigRational(String s) {
-        String[] tokens = s.split("/");
-        if (tokens.length == 2)
-            init(new BigInteger(tokens[0]), new BigInteger(tokens[1]));
-        else if (tokens.length == 1)
-            init(new BigInteger(tokens[0]), BigInteger.ONE);
+        int end = endOfFraction(s, 0, s.length());
+        int slash = indexOfSlash(s, 0, end);
+        if (slash < 0)
+            init(parseInteger(s, 0, end, false), BigInteger.ONE);
+        else if (indexOfSlash(s, slash + 1, end) < 0)
+            init(parseInteger(s, 0, slash, false), parseInteger(s, slash + 1, end, false));
         else
             throw new IllegalArgumentException("For input string: \"" + s + "\"");
     }
 
+    // return the index of the first '/' in s[from..to - 1], or -1
+    static int indexOfSlash(CharSequence s, int from, int to) {
+        for (int i = from; i < to; i++)
+            if (s.charAt(i) == '/') return i;
+        return -1;
+    }
+
+    // return the end of s[from..to - 1] without trailing slashes, which split("/") drops too
+    static int endOfFraction(CharSequence s, int from, int to) {
+        while (to > from && s.charAt(to - 1) == '/') to--;
+        return to;
+    }
+
+    // parse a decimal integer from s[from..to - 1], optionally ignoring surrounding whitespace;
+    // the digits are converted by a single BigInteger constructor call, without a copy if the
+    // range is a whole string
+    static BigInteger parseInteger(CharSequence s, int from, int to, boolean trim) {
+        if (trim) {
+            while (from < to && s.charAt(from) <= ' ') from++;
+            while (to > from && s.charAt(to - 1) <= ' ') to--;
+        }
+        return new BigInteger(s.subSequence(from, to).toString());
+    }
+
     // create and initialize a new BigRational object
     public BigRational(BigInteger numerator, BigInteger denominator) {
         init(numerator, denominator);
     }
 
+    private BigRational() {
+    }
+
+    // create a BigRational from a numerator and denominator that are already reduced and
+    // have a positive denominator, i.e. without calculating a gcd
+    private static BigRational reduced(BigInteger numerator, BigInteger denominator) {
+        BigRational r = new BigRational();
+        r.num = numerator;
+        r.den = denominator;
+        return r;
+    }
+
+    // return x / g, skipping the division if g = 1
+    private static BigInteger divideOut(BigInteger x, BigInteger g) {
+        return g.equals(BigInteger.ONE) ? x : x.divide(g);
+    }
+
     private void init(BigInteger numerator, BigInteger denominator) {
 
         // deal with x / 0
@@ -95,43 +137,95 @@ public class BigRational implements Comparable<BigRational>
     }
 
     // return { -1, 0, + 1 } if a < b, a = b, or a > b
+    // Most comparisons are settled by the signs, or by the bit lengths: |a| lies between
+    // 2^(bitLength(a.num) - bitLength(a.den) - 1) and 2^(bitLength(a.num) - bitLength(a.den) + 1).
+    // Only if that is inconclusive, the cross products are compared.
     public int compareTo(BigRational b) {
         BigRational a = this;
+        int sign = a.num.signum();
+        if (sign != b.num.signum()) return sign > b.num.signum() ? 1 : -1;
+        if (sign == 0) return 0;
+        if (a.den.equals(b.den)) return a.num.compareTo(b.num);
+        int diff = (a.num.bitLength() - a.den.bitLength()) - (b.num.bitLength() - b.den.bitLength());
+        if (diff >=  2) return sign;
+        if (diff <= -2) return -sign;
         return a.num.multiply(b.den).compareTo(a.den.multiply(b.num));
     }
 
     // is this BigRational negative, zero, or positive?
-    public boolean isZero()     { return compareTo(ZERO) == 0; }
-    public boolean isPositive() { return compareTo(ZERO)  > 0; }
-    public boolean isNegative() { return compareTo(ZERO)  < 0; }
+    public boolean isZero()     { return num.signum() == 0; }
+    public boolean isPositive() { return num.signum()  > 0; }
+    public boolean isNegative() { return num.signum()  < 0; }
 
     // is this Rational object equal to y?
+    // BigRationals are always reduced, with a positive denominator, so equal values have equal
+    // numerators and denominators.
     public boolean equals(Object y) {
         if (y == this) return true;
         if (y == null) return false;  
         if (y.getClass() != this.getClass()) return false;
         BigRational b = (BigRational) y;
-        return compareTo(b) == 0;
+        return num.equals(b.num) && den.equals(b.den);
     }
         
     // hashCode consistent with equals() and compareTo()
+    // calculated from the limbs of numerator and denominator, and cached, since BigRational is immutable
     public int hashCode() {
-        return this.toString().hashCode();
+        int h = hash;
+        if (h == 0) {
+            h = 31 * num.hashCode() + den.hashCode();
+            hash = h;
+        }
+        return h;
     }
     
 
     // return a * b
+    // a and b are reduced, so only a.num and b.den, resp. b.num and a.den, can have common
+    // factors. Cancelling these first keeps the products small and the result is reduced.
     public BigRational multiply(BigRational b) {
         BigRational a = this;
-        return new BigRational(a.num.multiply(b.num), a.den.multiply(b.den));
+        if (a.num.signum() == 0 || b.num.signum() == 0) return ZERO;
+        BigInteger g1 = a.num.gcd(b.den);
+        BigInteger g2 = b.num.gcd(a.den);
+        BigInteger numerator   = divideOut(a.num, g1).multiply(divideOut(b.num, g2));
+        BigInteger denominator = divideOut(a.den, g2).multiply(divideOut(b.den, g1));
+        return reduced(numerator, denominator);
     }
 
     // return a + b
     public BigRational add(BigRational b) {
-        BigRational a = this;
-        BigInteger numerator   = a.num.multiply(b.den).add(b.num.multiply(a.den));
-        BigInteger denominator = a.den.multiply(b.den);
-        return new BigRational(numerator, denominator);
+        return sum(this, b.num, b.den);
+    }
+
+    // return a + bnum/bden, bnum/bden being reduced, with a positive denominator
+    // See Knuth, TAOCP Vol. 2, 4.5.1: with d1 = gcd(a.den, bden), the numerator is formed from
+    // the denominators divided by d1, and only gcd(t, d1) can still be cancelled.
+    private static BigRational sum(BigRational a, BigInteger bnum, BigInteger bden) {
+        if (bnum.signum() == 0) return a;
+        if (a.num.signum() == 0) return reduced(bnum, bden);
+
+        // integers, or an integer added to a fraction: the result is already reduced
+        if (bden.equals(BigInteger.ONE))  return reduced(a.num.add(bnum.multiply(a.den)), a.den);
+        if (a.den.equals(BigInteger.ONE)) return reduced(bnum.add(a.num.multiply(bden)), bden);
+
+        // equal denominators
+        if (a.den.equals(bden)) {
+            BigInteger t = a.num.add(bnum);
+            if (t.signum() == 0) return ZERO;
+            BigInteger g = t.gcd(bden);
+            return reduced(divideOut(t, g), divideOut(bden, g));
+        }
+
+        BigInteger d1 = a.den.gcd(bden);
+        if (d1.equals(BigInteger.ONE))
+            return reduced(a.num.multiply(bden).add(bnum.multiply(a.den)), a.den.multiply(bden));
+
+        BigInteger aden = a.den.divide(d1);
+        BigInteger t = a.num.multiply(bden.divide(d1)).add(bnum.multiply(aden));
+        if (t.signum() == 0) return ZERO;
+        BigInteger d2 = t.gcd(d1);
+        return reduced(divideOut(t, d2), aden.multiply(divideOut(bden, d2)));
     }
 
     // return -a
@@ -141,8 +235,7 @@ public class BigRational implements Comparable<BigRational>
 
     // return a - b
     public BigRational subtract(BigRational b) {
-        BigRational a = this;
-        return a.add(b.negate());
+        return sum(this, b.num.negate(), b.den);
     }
 
     // return 1 / a
@@ -151,18 +244,88 @@ public class BigRational implements Comparable<BigRational>
     }
 
     // return a / b
+    // same as a * (1 / b), with the cancellation done crosswise, but without the reciprocal
     public BigRational divide(BigRational b) {
         BigRational a = this;
-        return a.multiply(b.reciprocal());
+        if (b.num.signum() == 0) throw new ArithmeticException("Denominator is zero");
+        if (a.num.signum() == 0) return ZERO;
+        BigInteger g1 = a.num.gcd(b.num);
+        BigInteger g2 = a.den.gcd(b.den);
+        BigInteger numerator   = divideOut(a.num, g1).multiply(divideOut(b.den, g2));
+        BigInteger denominator = divideOut(a.den, g2).multiply(divideOut(b.num, g1));
+        if (denominator.signum() < 0) {
+            numerator = numerator.negate();
+            denominator = denominator.negate();
+        }
+        return reduced(numerator, denominator);
     }
 
-    // return double reprentation (within given precision)
+    // return the double closest to this BigRational (round half even)
     public double doubleValue() {
-        int SCALE = 32;        // number of digits after the decimal place
-        BigDecimal numerator   = new BigDecimal(num);
-        BigDecimal denominator = new BigDecimal(den);
-        BigDecimal quotient    = numerator.divide(denominator, SCALE, RoundingMode.HALF_EVEN);
-        return quotient.doubleValue();
+        return toDouble(num, den);
+    }
+
+    // return the float closest to this BigRational (round half even)
+    public float floatValue() {
+        return toFloat(num, den);
+    }
+
+    static double toDouble(BigInteger numerator, BigInteger denominator) {
+        return Double.longBitsToDouble(toIEEEBits(numerator, denominator, 52, 11));
+    }
+
+    static float toFloat(BigInteger numerator, BigInteger denominator) {
+        return Float.intBitsToFloat((int) toIEEEBits(numerator, denominator, 23, 8));
+    }
+
+    // return the bits of the IEEE 754 value closest to numerator/denominator (denominator > 0),
+    // rounded half even, for a format with the given number of fraction and exponent bits
+    // The operands are shifted so that a single division gives a quotient of fractionBits + 2 or
+    // fractionBits + 3 bits, i.e. the significand plus at least one rounding bit. Any lower bits
+    // and the remainder of the division only serve as sticky bit. Subnormals, underflow to zero
+    // and overflow to infinity are handled exactly.
+    static long toIEEEBits(BigInteger numerator, BigInteger denominator, int fractionBits, int exponentBits) {
+        int sign = numerator.signum();
+        if (sign == 0) return 0;
+        long signBit = sign < 0 ? 1L << (fractionBits + exponentBits) : 0;
+        BigInteger n = numerator.abs();
+        int bias = (1 << (exponentBits - 1)) - 1;
+        int minExponent = 1 - bias;
+
+        // n/d lies between 2^(k - 1) and 2^(k + 1), so q gets fractionBits + 2 or + 3 bits
+        long k = (long) n.bitLength() - denominator.bitLength();
+        long shift = fractionBits + 2 - k;
+        if (k > bias + 1) return signBit | infinityBits(fractionBits, exponentBits);
+        if (k < minExponent - fractionBits - 2) return signBit;  // less than half the smallest subnormal
+        BigInteger[] qr = shift >= 0
+            ? n.shiftLeft((int) shift).divideAndRemainder(denominator)
+            : n.divideAndRemainder(denominator.shiftLeft((int) -shift));
+        long q = qr[0].longValue();
+        boolean sticky = qr[1].signum() != 0;
+
+        // value = q * 2^-shift; drop the bits below the significand, or below the smallest subnormal
+        int qBits = 64 - Long.numberOfLeadingZeros(q);
+        long drop = Math.max(qBits - (fractionBits + 1), minExponent - fractionBits + shift);
+        if (drop > qBits) return signBit;
+        long m = q >>> drop;
+        long rest = q & ((1L << drop) - 1);
+        long half = 1L << (drop - 1);
+        if (rest > half || (rest == half && (sticky || (m & 1) != 0)))
+            m++;
+        if (m == 1L << (fractionBits + 1)) {
+            m >>>= 1;
+            drop++;
+        }
+
+        // subnormals have a significand below 2^fractionBits and a biased exponent of 0
+        if (m < 1L << fractionBits) return signBit | m;
+        long biased = drop - shift + fractionBits + bias;
+        if (biased >= 2 * bias + 1) return signBit | infinityBits(fractionBits, exponentBits);
+        return signBit | (biased << fractionBits) | (m & ((1L << fractionBits) - 1));
+    }
+
+    private static long infinityBits(int fractionBits, int exponentBits) {
+        return ((1L << exponentBits) - 1) << fractionBits;
     }
 
 
@@ -51,7 +51,9 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
 import java.util.Scanner;
+import java.util.stream.IntStream;
 import org.apache.commons.math3.exception.*;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
 import org.apache.commons.math3.fraction.*;
 
 /*
@@ -93,6 +95,12 @@ public class BigRationalTestDataGenerator
         }
     }
     
+    public static class IntDivideResult
+    {
+        public BigInteger quotient;
+        public BigFraction remainder;
+    }
+    
     public static class ScaleAndUnscaledValue
     {
         public long scale;
@@ -105,8 +113,28 @@ public class BigRationalTestDataGenerator
         }
     }
     
+    // Command line options. The invariant tier (-invariants) is not generated by default.
+    static ArrayList<String> options = new ArrayList<>();
+    
+    static boolean isOptionSet(String option)
+    {
+        return options.contains(option);
+    }
+    
+    // Returns the value of an option like -cases=1000, or defaultValue if it is not set.
+    static String getOptionValue(String option, String defaultValue)
+    {
+        for (String s: options)
+            if (s.startsWith(option + "="))
+                return s.substring(option.length() + 1);
+        return defaultValue;
+    }
+    
     public static void main(String[] args)
     {
+        for (String arg: args)
+            options.add(arg.toLowerCase(Locale.ROOT));
+        
         // TODO: Add bad results (exceptions) too, and set result info accordingly.
 
         try
@@ -115,10 +143,15 @@ public class BigRationalTestDataGenerator
             BufferedWriter bw = new BufferedWriter(new FileWriter(outfile));
             writeln("Writing file " + outfile.getCanonicalPath());
             writeln();
+            writeln("You'll see a long list of errors. This is expected. The generated errors are");
+            writeln("registered and stored in the result arrays generated by this program");
+            writeln();
+            writeln();
             try
             {
                 writeDate(bw);
                 writeTypes(bw);
+                parseArguments();
                 checkArguments();
                 writeTestData(bw);
                 generateCtorResults(bw);
@@ -128,8 +161,7 @@ public class BigRationalTestDataGenerator
                 generateSubtractResults(bw);
                 generateMultiplyResults(bw);
                 generateDivideResults(bw);
-                generateIntDivideResults(bw);
-                generateRemainderResults(bw);
+                generateIntDivideAndRemainderResults(bw);
                 generateNegateResults(bw);
                 generateReciprocalResults(bw);
                 generateFloatValueResults(bw);
@@ -140,6 +172,23 @@ public class BigRationalTestDataGenerator
             {
                 bw.close();
             }
+            
+            if (isOptionSet("-invariants"))
+            {
+                outfile = new File("..\\..\\..\\Tests\\BigRationals\\BigRationalInvariantResults.txt");
+                bw = new BufferedWriter(new FileWriter(outfile));
+                writeln("Writing file " + outfile.getCanonicalPath());
+                writeln();
+                try
+                {
+                    writeDate(bw);
+                    generateInvariantResults(bw);
+                }
+                finally
+                {
+                    bw.close();
+                }
+            }
         }
         catch (IOException e)
         {
@@ -251,11 +300,6 @@ public class BigRationalTestDataGenerator
         writeln(bw, "// The generator was written in Java, using NetBeans 8.2.");
         writeln(bw, "//");
         writeln(bw);
-
-        writeln("You'll see a long list of errors. This is expected. The generated errors are");
-        writeln("registered and stored in the result arrays generated by this program");
-        writeln();
-        writeln();
     }
 
     static void writeTypes(BufferedWriter bw) throws IOException
@@ -581,22 +625,42 @@ public class BigRationalTestDataGenerator
     
     // Note: BigFraction, unlike the previously used BigRational, does not have 
     //       a constructor or method taking a string representation as
-    //       argument. Hence the following method.
+    //       argument. Hence the following methods. They scan the characters 
+    //       directly, without splitting or trimming the string. As with the 
+    //       former split("/"), anything after a second slash is ignored.
     static BigFraction fromString(String s)
     {
-        String[] items = s.split("/");
-        if (items.length > 1)
+        return fromString(s, 0, s.length());
+    }
+    
+    // Parses "num/den" or "num" from s[from..to - 1], e.g. from a large buffer.
+    static BigFraction fromString(CharSequence s, int from, int to)
+    {
+        int end = BigRational.endOfFraction(s, from, to);
+        int slash = BigRational.indexOfSlash(s, from, end);
+        if (slash >= 0)
         {
-            BigInteger num = new BigInteger(items[0].trim());
-            BigInteger den = new BigInteger(items[1].trim());
+            int denEnd = BigRational.indexOfSlash(s, slash + 1, end);
+            BigInteger num = BigRational.parseInteger(s, from, slash, true);
+            BigInteger den = BigRational.parseInteger(s, slash + 1, denEnd < 0 ? end : denEnd, true);
             return new BigFraction(num, den);
         }
         else
         {
-            BigInteger num = new BigInteger(items[0].trim());
+            BigInteger num = BigRational.parseInteger(s, from, end, true);
             return new BigFraction(num);
         }
     }
+    
+    // The arguments are parsed only once, not in every loop of every section.
+    static void parseArguments()
+    {
+        int count = ARGUMENTS.length;
+        
+        arguments = new BigFraction[count];
+        for (int i = 0; i < count; i++)
+            arguments[i] = fromString(ARGUMENTS[i]);
+    }
 
     static void generateAddResults(BufferedWriter bw) throws IOException
     {
@@ -607,12 +671,12 @@ public class BigRationalTestDataGenerator
 
         for (int i = 0; i < count; ++i)
         {
-            BigFraction d1 = fromString(ARGUMENTS[i]);
+            BigFraction d1 = arguments[i];
             for (int j = 0; j < count; ++j, ++n)
             {
                 // Test operation.
                 TestResult tr = new TestResult();
-                BigFraction d2 = fromString(ARGUMENTS[j]);
+                BigFraction d2 = arguments[j];
                 tr.info = TestResultInfo.Ok;
                 BigFraction d3 = d1.add(d2);
 
@@ -632,12 +696,12 @@ public class BigRationalTestDataGenerator
 
         for (int i = 0; i < count; ++i)
         {
-            BigFraction d1 = fromString(ARGUMENTS[i]);
+            BigFraction d1 = arguments[i];
             for (int j = 0; j < count; ++j, ++n)
             {
                 // Test operation.
                 TestResult tr = new TestResult();
-                BigFraction d2 = fromString(ARGUMENTS[j]);
+                BigFraction d2 = arguments[j];
                 tr.info = TestResultInfo.Ok;
                 BigFraction d3 = d1.subtract(d2);
 
@@ -657,12 +721,12 @@ public class BigRationalTestDataGenerator
 
         for (int i = 0; i < count; ++i)
         {
-            BigFraction d1 = fromString(ARGUMENTS[i]);
+            BigFraction d1 = arguments[i];
             for (int j = 0; j < count; ++j, ++n)
             {
                 // Test operation.
                 TestResult tr = new TestResult();
-                BigFraction d2 = fromString(ARGUMENTS[j]);
+                BigFraction d2 = arguments[j];
                 tr.info = TestResultInfo.Ok;
                 BigFraction d3 = d1.multiply(d2);
 
@@ -682,12 +746,12 @@ public class BigRationalTestDataGenerator
 
         for (int i = 0; i < count; ++i)
         {
-            BigFraction d1 = fromString(ARGUMENTS[i]);
+            BigFraction d1 = arguments[i];
             for (int j = 0; j < count; ++j, ++n)
             {
                 // Test operation.
                 TestResult tr = new TestResult();
-                BigFraction d2 = fromString(ARGUMENTS[j]);
+                BigFraction d2 = arguments[j];
                 tr.info = TestResultInfo.Ok;
 
                 try
@@ -708,84 +772,63 @@ public class BigRationalTestDataGenerator
         writeDyadicResults(bw, "DivideResults", results, count, "/");
     }
     
-    static BigInteger intDivide(BigFraction a, BigFraction b) throws MathArithmeticException
+    // Integer division truncates, as in Delphi. Instead of forming the reduced quotient a / b with
+    // a gcd, only to truncate it, and then a - b * q with more gcds, quotient and remainder come
+    // directly from the cross products: a / b = (an * bd) / (ad * bn). A single divideAndRemainder
+    // gives q and r, and the remainder a - b * q is r / (ad * bd). Only that is reduced.
+    static IntDivideResult intDivideAndRemainder(BigFraction a, BigFraction b) throws MathArithmeticException
     {
-        BigFraction quotient = a.divide(b);
-        return quotient.getNumerator().divide(quotient.getDenominator());
+        if (b.getNumerator().signum() == 0)
+            throw new MathArithmeticException(LocalizedFormats.ZERO_DENOMINATOR);
+        
+        BigInteger[] quotRem = a.getNumerator().multiply(b.getDenominator())
+                .divideAndRemainder(a.getDenominator().multiply(b.getNumerator()));
+        IntDivideResult result = new IntDivideResult();
+        result.quotient = quotRem[0];
+        result.remainder = new BigFraction(quotRem[1], a.getDenominator().multiply(b.getDenominator()));
+        return result;
     }
     
-    static void generateIntDivideResults(BufferedWriter bw) throws IOException
+    // IntDivideResults and RemainderResults are generated in one pass.
+    static void generateIntDivideAndRemainderResults(BufferedWriter bw) throws IOException
     {
         int count = ARGUMENTS.length;
-        TestResult[] results = new TestResult[count * count];
+        TestResult[] quotients = new TestResult[count * count];
+        TestResult[] remainders = new TestResult[count * count];
 
         int n = 0;
 
         for (int i = 0; i < count; ++i)
         {
-            BigFraction d1 = fromString(ARGUMENTS[i]);
+            BigFraction d1 = arguments[i];
             for (int j = 0; j < count; ++j, ++n)
             {
                 // Test operation.
-                TestResult tr = new TestResult();
-                BigFraction d2 = fromString(ARGUMENTS[j]);
+                TestResult qr = new TestResult();
+                TestResult rr = new TestResult();
+                BigFraction d2 = arguments[j];
                 try
                 {
-                    BigInteger d3 = intDivide(d1, d2);
-                    tr.info = TestResultInfo.Ok;
-                    tr.val = d3.toString();
+                    IntDivideResult d3 = intDivideAndRemainder(d1, d2);
+                    qr.info = TestResultInfo.Ok;
+                    qr.val = d3.quotient.toString();
+                    rr.info = TestResultInfo.Ok;
+                    rr.val = trimmedToString(d3.remainder);
                 }
                 catch (MathArithmeticException e)
                 {
-                    tr.info = TestResultInfo.DivideByZero;
-                    tr.val = "Division by zero";
+                    qr.info = TestResultInfo.DivideByZero;
+                    qr.val = "Division by zero";
+                    rr.info = TestResultInfo.DivideByZero;
+                    rr.val = "Division by zero";
                     writeln("(%2d,%2d) - Division error: %s -- %s div %s", i, j, e.getMessage(), trimmedToString(d1), trimmedToString(d2));
                 }
-                results[n] = tr;
+                quotients[n] = qr;
+                remainders[n] = rr;
             }
         }
-        writeDyadicResults(bw, "IntDivideResults", results, count, "div");
-        
-    }
-    
-    static BigFraction remainder(BigFraction a, BigFraction b) throws MathArithmeticException
-    {
-        BigInteger quotient = intDivide(a, b);
-        return a.subtract(b.multiply(quotient));
-    }
-    
-    static void generateRemainderResults(BufferedWriter bw) throws IOException
-    {
-        int count = ARGUMENTS.length;
-        TestResult[] results = new TestResult[count * count];
-
-        int n = 0;
-
-        for (int i = 0; i < count; ++i)
-        {
-            BigFraction d1 = fromString(ARGUMENTS[i]);
-            for (int j = 0; j < count; ++j, ++n)
-            {
-                // Test operation.
-                TestResult tr = new TestResult();
-                BigFraction d2 = fromString(ARGUMENTS[j]);
-                tr.info = TestResultInfo.Ok;
-
-                try
-                {
-                    BigFraction d3 = remainder(d1, d2);
-                    tr.val = trimmedToString(d3);
-                }
-                catch (ArithmeticException e)
-                {
-                    tr.info = TestResultInfo.DivideByZero;
-                    tr.val = "Division by zero";
-                    writeln("(%2d,%2d) - Division error: %s -- %s mod %s", i, j, e.getMessage(), trimmedToString(d1), trimmedToString(d2));
-                }
-                results[n] = tr;
-            }
-        }
-        writeDyadicResults(bw, "RemainderResults", results, count, "mod");
+        writeDyadicResults(bw, "IntDivideResults", quotients, count, "div");
+        writeDyadicResults(bw, "RemainderResults", remainders, count, "mod");
     }
     
     static void generateNegateResults(BufferedWriter bw) throws IOException
@@ -799,7 +842,7 @@ public class BigRationalTestDataGenerator
         {
             TestResult result = new TestResult();
             
-            BigFraction d1 = fromString(ARGUMENTS[i]);
+            BigFraction d1 = arguments[i];
             BigFraction d2 = d1.negate();
             result.info = TestResultInfo.Ok;
             result.val = trimmedToString(d2);
@@ -821,7 +864,7 @@ public class BigRationalTestDataGenerator
         {
             TestResult result = new TestResult();
             
-            BigFraction d1 = fromString(ARGUMENTS[i]);
+            BigFraction d1 = arguments[i];
             try
             {
                 BigFraction d2 = d1.reciprocal();
@@ -840,6 +883,8 @@ public class BigRationalTestDataGenerator
         writeMonadicResults(bw, "ReciprocalResults", results, count, "1/", "");
     }
 
+    // BigFraction.doubleValue() and floatValue() divide two doubles, which rounds twice and
+    // fails for large operands. BigRational converts exactly, with correct rounding.
     static void generateDoubleValueResults(BufferedWriter bw) throws IOException
     {
         int count = ARGUMENTS.length;
@@ -850,8 +895,8 @@ public class BigRationalTestDataGenerator
 
         for (int i = 0; i < count; ++i)
         {
-            BigFraction d1 = fromString(ARGUMENTS[i]);
-            double d = d1.doubleValue();
+            BigFraction d1 = arguments[i];
+            double d = BigRational.toDouble(d1.getNumerator(), d1.getDenominator());
             long raw = Double.doubleToRawLongBits(d);
             writeln(bw, "    $%016X%s    // %2d: %s --> %f", raw, (i < count - 1) ? "," : " ", i, ARGUMENTS[i], d);
         }
@@ -870,8 +915,8 @@ public class BigRationalTestDataGenerator
 
         for (int i = 0; i < count; ++i)
         {
-            BigFraction d1 = fromString(ARGUMENTS[i]);
-            float f = d1.floatValue();
+            BigFraction d1 = arguments[i];
+            float f = BigRational.toFloat(d1.getNumerator(), d1.getDenominator());
             int raw = Float.floatToRawIntBits(f);
             writeln(bw, "    $%08X%s    // %2d: %s --> %f", raw, (i < count - 1) ? "," : " ", i, ARGUMENTS[i], f);
         }
@@ -896,14 +941,17 @@ public class BigRationalTestDataGenerator
         writeln(bw);
         writeln(bw, "  CompResults: array[0..CompCount - 1, 0..CompCount - 1] of TValueSign =");
         writeln(bw, "  (");
+        BigFraction[] values = new BigFraction[count];
+        for (int i = 0; i < count; ++i)
+            values[i] = fromString(compData[i]);
         int n = 0;
         for (int i = 0; i < count; ++i)
         {
             bw.write("    (");
-            BigFraction d1 = fromString(compData[i]);
+            BigFraction d1 = values[i];
             for (int j = 0; j < count; ++j, ++n)
             {
-                BigFraction d2 = fromString(compData[j]);
+                BigFraction d2 = values[j];
                 result = d1.compareTo(d2);
                 if (result < 0)
                     bw.write("-1");
@@ -934,7 +982,7 @@ public class BigRationalTestDataGenerator
         
         for (int i = 0; i < count; i++)
         {
-            BigFraction d1 = fromString(ARGUMENTS[i]);
+            BigFraction d1 = arguments[i];
             TestResult tr = new TestResult();
             tr.info = TestResultInfo.Ok;
             tr.val = trimmedToString(d1);
@@ -945,13 +993,110 @@ public class BigRationalTestDataGenerator
         writeln(bw);
     }
     
+    // Invariant tier. Instead of results, this writes a hash of the results of each block of 
+    // random operand pairs, so the tests can check millions of cases per run. The operands of 
+    // block B come from the stream SplitMix64(INVARIANT_SEED).split(B), using the same ports of 
+    // Velthuis.XorShifts and Velthuis.RandomNumbers as the BigInteger generator, so the tests 
+    // can regenerate them, check the invariants
+    //   Add:       (A + B) - B = A,
+    //   Subtract:  (A - B) + B = A,
+    //   Multiply:  (A * B) / B = A,
+    //   Divide:    (A / B) * B = A,
+    //   IntDivide: Q * B + R = A, with |R| < |B| and R = 0 or Sign(R) = Sign(A),
+    // and compare the hashes of the (normalized) results with the ones in the file. With
+    // -operands, the operands are written too.
+    //
+    // Numerator and denominator are each BigInteger.Create(Bits, Random), with Bits a random 
+    // value in 1..MaxBits, and MaxBits a random one of INVARIANT_BITS.
+    static BigInteger invariantInteger(XorShifts.SplitMix64 random)
+    {
+        int maxBits = INVARIANT_BITS[random.nextInteger(INVARIANT_BITS.length)];
+        return RandomNumbers.createBigInteger(random.nextInteger(1, maxBits + 1), random);
+    }
+    
+    static BigFraction invariantOperand(XorShifts.SplitMix64 random, boolean nonZero)
+    {
+        BigInteger num = invariantInteger(random);
+        BigInteger den = invariantInteger(random);
+        if (nonZero && num.signum() == 0)
+            num = BigInteger.ONE;
+        if (den.signum() == 0)
+            den = BigInteger.ONE;
+        return new BigFraction(random.nextInteger(2) == 0 ? num : num.negate(), den);
+    }
+    
+    // A rational adds its numerator and denominator to the hash.
+    static long addHash(long hash, BigFraction value)
+    {
+        return InvariantHashes.add(InvariantHashes.add(hash, value.getNumerator()), value.getDenominator());
+    }
+    
+    static String generateInvariantBlock(int block, int count, boolean withOperands)
+    {
+        XorShifts.SplitMix64 random = new XorShifts.SplitMix64(INVARIANT_SEED).split(block);
+        long[] hashes = new long[INVARIANT_SECTIONS.length];
+        StringBuilder sb = new StringBuilder();
+        
+        for (int i = 0; i < count; i++)
+        {
+            BigFraction a = invariantOperand(random, false);
+            BigFraction b = invariantOperand(random, true);
+            if (withOperands)
+                sb.append(String.format("Case %d %s %s\n", (long)block * INVARIANT_BLOCK_SIZE + i, trimmedToString(a), trimmedToString(b)));
+            
+            hashes[0] = addHash(hashes[0], a.add(b));
+            hashes[1] = addHash(hashes[1], a.subtract(b));
+            hashes[2] = addHash(hashes[2], a.multiply(b));
+            hashes[3] = addHash(hashes[3], a.divide(b));
+            IntDivideResult quotRem = intDivideAndRemainder(a, b);
+            hashes[4] = addHash(InvariantHashes.add(hashes[4], quotRem.quotient), quotRem.remainder);
+        }
+        
+        sb.append(String.format("Block %d %d", block, count));
+        for (long hash: hashes)
+            sb.append(String.format(" $%016X", hash));
+        return sb.toString();
+    }
+    
+    // The blocks are generated in parallel, a batch at a time, and written in order.
+    static void generateInvariantResults(BufferedWriter bw) throws IOException
+    {
+        long cases = Long.parseLong(getOptionValue("-cases", INVARIANT_CASES));
+        int blocks = (int)((cases + INVARIANT_BLOCK_SIZE - 1) / INVARIANT_BLOCK_SIZE);
+        int batch = 4 * Runtime.getRuntime().availableProcessors();
+        boolean withOperands = isOptionSet("-operands");
+        
+        writeln(bw, "// Each block line has the hashes of the results of Count cases, in the order below. The");
+        writeln(bw, "// operands of block B come from SplitMix64(Seed).split(B) (see generator). Case lines, if");
+        writeln(bw, "// any, have the operands A and B of the case.");
+        writeln(bw, "//");
+        writeln(bw, "//   Case <Index> <A> <B>");
+        writeln(bw, "//   Block <Index> <Count> <%s>", String.join("> <", INVARIANT_SECTIONS));
+        writeln(bw);
+        writeln(bw, "Seed $%016X", INVARIANT_SEED);
+        writeln(bw, "Cases %d", cases);
+        writeln(bw, "BlockSize %d", INVARIANT_BLOCK_SIZE);
+        writeln(bw, "HashBase $%016X", InvariantHashes.BASE);
+        writeln(bw);
+        
+        writeln("Generating %d invariant cases...", cases);
+        for (int first = 0; first < blocks; first += batch)
+        {
+            String[] lines = IntStream.range(first, Math.min(first + batch, blocks)).parallel()
+                    .mapToObj(block -> generateInvariantBlock(block, (int)Math.min(INVARIANT_BLOCK_SIZE, cases - (long)block * INVARIANT_BLOCK_SIZE), withOperands))
+                    .toArray(String[]::new);
+            for (String line: lines)
+                writeln(bw, line);
+        }
+    }
+    
     static void checkArguments()
     {
         int count = ARGUMENTS.length;
         
         for (int i = 0; i < count; i++)
         {
-            BigFraction arg = fromString(ARGUMENTS[i]);
+            BigFraction arg = arguments[i];
             if (!trimmedToString(arg).equalsIgnoreCase(ARGUMENTS[i]))
             {
                 System.out.format("%d: %s --> %s\n", i, trimmedToString(arg), ARGUMENTS[i]);
@@ -959,6 +1104,16 @@ public class BigRationalTestDataGenerator
         }
     }
 
+    static BigFraction[] arguments;
+    
+    // Invariant tier. Numerators and denominators have random sizes of up to one of 
+    // INVARIANT_BITS bits. Use e.g. -cases=1000000000 to change the number of cases.
+    static final String INVARIANT_CASES = "1000000";
+    static final int INVARIANT_BLOCK_SIZE = 4096;
+    static final int[] INVARIANT_BITS = { 32, 64, 128, 256 };
+    static final long INVARIANT_SEED = 20190405L;
+    static final String[] INVARIANT_SECTIONS = { "Add", "Subtract", "Multiply", "Divide", "IntDivide" };
+    
     private static final String[] CTOR_TESTDATA = new String[]
     {
         "1",
@@ -0,0 +1,276 @@
+/*****************************************************************************/
+/* File:       RandomNumbers.java                                            */
+/* Function:   Java port of the random number generator bases of             */
+/*             Velthuis.RandomNumbers.pas, so the test data generators can   */
+/*             produce the same random values as the Delphi code.            */
+/* Language:   Java 8                                                        */
+/* Based on:   Velthuis.RandomNumbers.pas, Copyright (c) 2016 Rudy Velthuis, */
+/*             under the license below.                                      */
+/* Notes:      - The results are bit for bit the same as those of the        */
+/*               Delphi classes, including their quirks, so do not "fix"     */
+/*               anything here without fixing it in the Delphi code too.     */
+/*             - Delphi's UInt32 and UInt64 are mapped to int and long.      */
+/*                                                                           */
+/* License:    Redistribution and use in source and binary forms, with or    */
+/*             without modification, are permitted provided that the         */
+/*             following conditions are met:                                 */
+/*                                                                           */
+/*             * Redistributions of source code must retain the above        */
+/*               copyright notice, this list of conditions and the following */
+/*               disclaimer.                                                 */
+/*             * Redistributions in binary form must reproduce the above     */
+/*               copyright notice, this list of conditions and the following */
+/*               disclaimer in the documentation and/or other materials      */
+/*               provided with the distribution.                             */
+/*                                                                           */
+/* Disclaimer: THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER "AS IS"     */
+/*             AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT     */
+/*             LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND     */
+/*             FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO        */
+/*             EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE     */
+/*             FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,     */
+/*             OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,      */
+/*             PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,     */
+/*             DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED    */
+/*             AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT   */
+/*             LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)        */
+/*             ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF   */
+/*             ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.                    */
+/*****************************************************************************/
+
+package bigrationaltestdatagenerator;
+
+import java.math.BigInteger;
+
+public final class RandomNumbers
+{
+
+    private RandomNumbers()
+    {
+    }
+
+    // Base for 32 bit random number generators, like TRandomBase.
+    public static abstract class RandomBase
+    {
+
+        // Returns the given number of random bits, in the lowest bits of the result.
+        protected abstract int next(int bits);
+
+        public abstract long getSeed();
+
+        public abstract void setSeed(long seed);
+
+        public int nextInteger()
+        {
+            return next(32);
+        }
+
+        public int nextInteger(int maxValue)
+        {
+            if (maxValue == 0)
+                throw new IllegalArgumentException("MaxValue not be 0");
+
+            if (isPowerOfTwo(maxValue))
+                return (int)(((long)maxValue * next(31)) >>> 31);
+
+            int bits, result;
+            do
+            {
+                bits = next(31);
+                result = bits % maxValue;
+            } while (bits - result + (maxValue - 1) < 0);
+            return result;
+        }
+
+        public int nextInteger(int minValue, int maxValue)
+        {
+            if (minValue < 0)
+                throw new IllegalArgumentException("MinValue must be positive or 0");
+            return minValue + nextInteger(maxValue - minValue);
+        }
+
+        public long nextInt64()
+        {
+            long high = next(32) & 0xFFFFFFFFL;
+            return (high << 32) + (next(32) & 0xFFFFFFFFL);
+        }
+
+        public double nextDouble()
+        {
+            // The Delphi code shifts a UInt32, so the top bits of Next(26) shl 27 are lost.
+            long high = ((long)next(26) << 27) & 0xFFFFFFFFL;
+            return (high + (next(27) & 0xFFFFFFFFL)) / (double)(1L << 53);
+        }
+
+        // Fills bytes in little endian order. Like the Delphi code, this always gets a value
+        // for the tail, even if there is no tail.
+        public void nextBytes(byte[] bytes)
+        {
+            int head = bytes.length / 4;
+            int tail = bytes.length % 4;
+            int n = 0;
+
+            for (int i = 0; i < head; i++)
+            {
+                int rnd = next(32);
+                bytes[n] = (byte)rnd;
+                bytes[n + 1] = (byte)(rnd >>> 8);
+                bytes[n + 2] = (byte)(rnd >>> 16);
+                bytes[n + 3] = (byte)(rnd >>> 24);
+                n += 4;
+            }
+            int rnd = next(32);
+            for (int i = 0; i < tail; i++)
+            {
+                bytes[n++] = (byte)rnd;
+                rnd >>>= 8;
+            }
+        }
+
+        // Same as calling nextInteger() for each element.
+        public void fill(int[] values)
+        {
+            for (int i = 0; i < values.length; i++)
+                values[i] = next(32);
+        }
+
+        // Same as calling nextInt64() for each element.
+        public void fill(long[] values)
+        {
+            for (int i = 0; i < values.length; i++)
+                values[i] = nextInt64();
+        }
+
+    }
+
+    // Base for 64 bit random number generators, like TRandomBase64.
+    public static abstract class RandomBase64 extends RandomBase
+    {
+
+        protected abstract long next64(int bits);
+
+        @Override
+        protected int next(int bits)
+        {
+            return (int)(next64(bits + 32) >>> 32);
+        }
+
+        @Override
+        public long nextInt64()
+        {
+            return next64(64);
+        }
+
+        @Override
+        public double nextDouble()
+        {
+            return next64(53) / (double)(1L << 53);
+        }
+
+        @Override
+        public void nextBytes(byte[] bytes)
+        {
+            int head = bytes.length / 8;
+            int tail = bytes.length % 8;
+            int n = 0;
+
+            for (int i = 0; i < head; i++)
+            {
+                long rnd = next64(64);
+                for (int j = 0; j < 8; j++)
+                {
+                    bytes[n++] = (byte)rnd;
+                    rnd >>>= 8;
+                }
+            }
+            long rnd = next64(64);
+            for (int i = 0; i < tail; i++)
+            {
+                bytes[n++] = (byte)rnd;
+                rnd >>>= 8;
+            }
+        }
+
+        @Override
+        public void fill(long[] values)
+        {
+            for (int i = 0; i < values.length; i++)
+                values[i] = next64(64);
+        }
+
+    }
+
+    // Linear congruential generator, like TRandom.
+    public static class Lcg extends RandomBase
+    {
+
+        static final long MULTIPLIER = 6364136223846793005L;
+        static final long INCREMENT = 1442695040888963407L;
+
+        private long seed;
+
+        public Lcg(long seed)
+        {
+            this.seed = seed;
+        }
+
+        @Override
+        protected int next(int bits)
+        {
+            seed = seed * MULTIPLIER + INCREMENT;
+            return (int)(seed >>> (64 - bits));     // Use the highest bits; Lower bits have lower period.
+        }
+
+        @Override
+        public long getSeed()
+        {
+            return seed;
+        }
+
+        @Override
+        public void setSeed(long seed)
+        {
+            this.seed = seed;
+        }
+
+    }
+
+    // Same as IsPowerOfTwo(Int32) in Velthuis.Numerics.
+    static boolean isPowerOfTwo(int value)
+    {
+        if (value == Integer.MIN_VALUE)
+            return true;
+        value = Math.abs(value);
+        return (value & (value - 1)) == 0;
+    }
+
+    // Same as BigInteger.Create(NumBits, Random) in Velthuis.BigIntegers, i.e. a non-negative
+    // random value of at most numBits bits.
+    public static BigInteger createBigInteger(int numBits, RandomBase random)
+    {
+        if (numBits == 0)
+            return BigInteger.ZERO;
+
+        byte[] bytes = new byte[((numBits + 7) >> 3) + 1];
+        random.nextBytes(bytes);
+
+        // One byte too many was allocated, to get a top byte of 0, i.e. always positive.
+        bytes[bytes.length - 1] = 0;
+
+        // Set bits above required bit length to 0.
+        int bits = numBits & 7;
+        if (bits == 0)
+            bits = 8;
+        bytes[bytes.length - 2] &= 0xFF >> (8 - bits);
+
+        // Delphi's bytes are little endian, Java's are big endian.
+        for (int i = 0, j = bytes.length - 1; i < j; i++, j--)
+        {
+            byte b = bytes[i];
+            bytes[i] = bytes[j];
+            bytes[j] = b;
+        }
+        return new BigInteger(bytes);
+    }
+
+}
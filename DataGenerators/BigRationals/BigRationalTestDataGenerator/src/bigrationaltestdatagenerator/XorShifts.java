@@ -0,0 +1,595 @@
+/*****************************************************************************/
+/* File:       XorShifts.java                                                */
+/* Function:   Java port of the xorshift random number generators of         */
+/*             Velthuis.XorShifts.pas, so the test data generators can       */
+/*             produce the same random operands as the Delphi code, and      */
+/*             tests can pass seeds instead of the operands themselves.      */
+/* Language:   Java 8                                                        */
+/* Based on:   Velthuis.XorShifts.pas, Copyright (c) 2018 Rudy Velthuis,     */
+/*             under the license below.                                      */
+/* Literature: https://en.wikipedia.org/wiki/Xorshift                        */
+/* Notes:      - The results are bit for bit the same as those of the        */
+/*               Delphi classes.                                             */
+/*             - Unlike the Delphi classes, the generators with a linear     */
+/*               state transition can jump ahead and split off independent   */
+/*               streams, e.g. one per parallel worker.                      */
+/*                                                                           */
+/* License:    Redistribution and use in source and binary forms, with or    */
+/*             without modification, are permitted provided that the         */
+/*             following conditions are met:                                 */
+/*                                                                           */
+/*             * Redistributions of source code must retain the above        */
+/*               copyright notice, this list of conditions and the following */
+/*               disclaimer.                                                 */
+/*             * Redistributions in binary form must reproduce the above     */
+/*               copyright notice, this list of conditions and the following */
+/*               disclaimer in the documentation and/or other materials      */
+/*               provided with the distribution.                             */
+/*                                                                           */
+/* Disclaimer: THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER "AS IS"     */
+/*             AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT     */
+/*             LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND     */
+/*             FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO        */
+/*             EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE     */
+/*             FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,     */
+/*             OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,      */
+/*             PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,     */
+/*             DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED    */
+/*             AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT   */
+/*             LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)        */
+/*             ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF   */
+/*             ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.                    */
+/*****************************************************************************/
+
+package bigrationaltestdatagenerator;
+
+import bigrationaltestdatagenerator.RandomNumbers.RandomBase;
+import bigrationaltestdatagenerator.RandomNumbers.RandomBase64;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.function.UnaryOperator;
+
+public final class XorShifts
+{
+
+    private XorShifts()
+    {
+    }
+
+    static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // Same as the SplitMix64 function in Velthuis.XorShifts, with X as the seed.
+    public static class SplitMix64 extends RandomBase64
+    {
+
+        private long x;
+
+        public SplitMix64(long seed)
+        {
+            x = seed;
+        }
+
+        // The mixing function of SplitMix64, also useful to turn a simple seed like 1, 2, 3
+        // into a well distributed seed for one of the other generators.
+        public static long mix(long z)
+        {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+
+        @Override
+        protected long next64(int bits)
+        {
+            x += GOLDEN_GAMMA;
+            return mix(x) >>> (64 - bits);
+        }
+
+        @Override
+        public long getSeed()
+        {
+            return x;
+        }
+
+        @Override
+        public void setSeed(long seed)
+        {
+            x = seed;
+        }
+
+        public void jump(long steps)
+        {
+            x += steps * GOLDEN_GAMMA;
+        }
+
+        public SplitMix64 split(int stream)
+        {
+            SplitMix64 result = new SplitMix64(x);
+            result.jump(((long)stream + 1) << 32);
+            return result;
+        }
+
+    }
+
+    public static class XorShift32 extends RandomBase
+    {
+
+        private static final LinearJump JUMP = new LinearJump(32, XorShift32::step);
+
+        private int seed;
+
+        public XorShift32(long seed)
+        {
+            setSeed(seed);
+        }
+
+        private static int step(int x)
+        {
+            x ^= x << 13;
+            x ^= x >>> 17;
+            x ^= x << 5;
+            return x;
+        }
+
+        private static long[] step(long[] state)
+        {
+            return new long[] { step((int)state[0]) & 0xFFFFFFFFL };
+        }
+
+        @Override
+        protected int next(int bits)
+        {
+            seed = step(seed);
+            return seed >>> (32 - bits);
+        }
+
+        @Override
+        public long getSeed()
+        {
+            return seed & 0xFFFFFFFFL;
+        }
+
+        @Override
+        public void setSeed(long seed)
+        {
+            this.seed = (int)seed;
+        }
+
+        public void jump(long steps)
+        {
+            seed = (int)JUMP.jump(new long[] { getSeed() }, steps)[0];
+        }
+
+        // Returns a generator that starts (stream + 1) * 2^16 values further on. The period
+        // is only 2^32 - 1, so prefer one of the 64 bit generators for many or long streams.
+        public XorShift32 split(int stream)
+        {
+            return new XorShift32(JUMP.jump(new long[] { getSeed() }, LinearJump.streamOffset(stream, 32))[0]);
+        }
+
+    }
+
+    public static class XorShift64 extends RandomBase64
+    {
+
+        private static final LinearJump JUMP = new LinearJump(64, XorShift64::step);
+
+        private long seed;
+
+        public XorShift64(long seed)
+        {
+            this.seed = seed;
+        }
+
+        private static long step(long x)
+        {
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+            return x;
+        }
+
+        private static long[] step(long[] state)
+        {
+            return new long[] { step(state[0]) };
+        }
+
+        @Override
+        protected long next64(int bits)
+        {
+            seed = step(seed);
+            return seed >>> (64 - bits);
+        }
+
+        @Override
+        public long getSeed()
+        {
+            return seed;
+        }
+
+        @Override
+        public void setSeed(long seed)
+        {
+            this.seed = seed;
+        }
+
+        public void jump(long steps)
+        {
+            seed = JUMP.jump(new long[] { seed }, steps)[0];
+        }
+
+        // Returns a generator that starts (stream + 1) * 2^32 values further on.
+        public XorShift64 split(int stream)
+        {
+            return new XorShift64(JUMP.jump(new long[] { seed }, LinearJump.streamOffset(stream, 64))[0]);
+        }
+
+    }
+
+    public static class XorShift128 extends RandomBase
+    {
+
+        private static final LinearJump JUMP = new LinearJump(128, XorShift128::step);
+
+        private final int[] seed = { 123456789, 362436069, 521288629, 88675123 };
+        private int seedIndex;
+
+        public XorShift128()
+        {
+        }
+
+        private static void step(int[] s)
+        {
+            int t = s[0] ^ (s[0] << 11);
+            s[0] = s[1];
+            s[1] = s[2];
+            s[2] = s[3];
+            s[3] = s[3] ^ ((s[3] >>> 19) ^ t ^ (t >>> 8));
+        }
+
+        private static long[] step(long[] state)
+        {
+            int[] s = unpack(state);
+            step(s);
+            return pack(s);
+        }
+
+        private static long[] pack(int[] s)
+        {
+            return new long[] { (s[0] & 0xFFFFFFFFL) | ((long)s[1] << 32), (s[2] & 0xFFFFFFFFL) | ((long)s[3] << 32) };
+        }
+
+        private static int[] unpack(long[] state)
+        {
+            return new int[] { (int)state[0], (int)(state[0] >>> 32), (int)state[1], (int)(state[1] >>> 32) };
+        }
+
+        @Override
+        protected int next(int bits)
+        {
+            step(seed);
+            return seed[3] >>> (32 - bits);
+        }
+
+        @Override
+        public long getSeed()
+        {
+            return ((long)seed[1] << 32) + (seed[0] & 0xFFFFFFFFL);
+        }
+
+        // Call twice to set full seed.
+        @Override
+        public void setSeed(long seed)
+        {
+            this.seed[seedIndex] = (int)seed;
+            this.seed[seedIndex + 1] = (int)(seed >>> 32);
+            seedIndex = (seedIndex + 2) & 3;
+        }
+
+        public void jump(long steps)
+        {
+            System.arraycopy(unpack(JUMP.jump(pack(seed), steps)), 0, seed, 0, 4);
+        }
+
+        // Returns a generator that starts (stream + 1) * 2^64 values further on.
+        public XorShift128 split(int stream)
+        {
+            XorShift128 result = new XorShift128();
+            System.arraycopy(unpack(JUMP.jump(pack(seed), LinearJump.streamOffset(stream, 128))), 0, result.seed, 0, 4);
+            result.seedIndex = seedIndex;
+            return result;
+        }
+
+    }
+
+    public static class XorWow extends RandomBase
+    {
+
+        private final int[] seed = new int[5];
+        private int seedIndex;
+
+        public XorWow(int[] state)
+        {
+            System.arraycopy(state, 0, seed, 0, 5);
+        }
+
+        @Override
+        protected int next(int bits)
+        {
+            int t = seed[3];
+            t ^= t >>> 2;
+            t ^= t << 1;
+            seed[3] = seed[2];
+            seed[2] = seed[1];
+            seed[1] = seed[0];
+            int s = seed[0];
+            t ^= s;
+            t ^= s << 4;
+            seed[0] = t;
+            seed[4] += 362437;
+            return (t + seed[4]) >>> (32 - bits);
+        }
+
+        // Same as the Delphi code, which shifts right instead of left, i.e. only returns seed[0].
+        @Override
+        public long getSeed()
+        {
+            return ((seed[1] & 0xFFFFFFFFL) >>> 32) + (seed[0] & 0xFFFFFFFFL);
+        }
+
+        // Call thrice to set full seed.
+        @Override
+        public void setSeed(long seed)
+        {
+            if (seedIndex == 4)
+            {
+                this.seed[4] = (int)seed;
+                seedIndex = 0;
+            }
+            else
+            {
+                this.seed[seedIndex] = (int)seed;
+                this.seed[seedIndex + 1] = (int)(seed >>> 32);
+                seedIndex += 2;
+            }
+        }
+
+    }
+
+    public static class XorShift64Star extends RandomBase64
+    {
+
+        private static final LinearJump JUMP = new LinearJump(64, XorShift64Star::step);
+
+        private long seed;
+
+        public XorShift64Star(long state)
+        {
+            seed = state;
+        }
+
+        private static long step(long x)
+        {
+            x ^= x >>> 12;
+            x ^= x << 25;
+            x ^= x >>> 27;
+            return x;
+        }
+
+        private static long[] step(long[] state)
+        {
+            return new long[] { step(state[0]) };
+        }
+
+        @Override
+        protected long next64(int bits)
+        {
+            seed = step(seed);
+            return (seed * 0x2545F4914F6CDD1DL) >>> (64 - bits);
+        }
+
+        @Override
+        public long getSeed()
+        {
+            return seed;
+        }
+
+        @Override
+        public void setSeed(long seed)
+        {
+            this.seed = seed;
+        }
+
+        public void jump(long steps)
+        {
+            seed = JUMP.jump(new long[] { seed }, steps)[0];
+        }
+
+        // Returns a generator that starts (stream + 1) * 2^32 values further on.
+        public XorShift64Star split(int stream)
+        {
+            return new XorShift64Star(JUMP.jump(new long[] { seed }, LinearJump.streamOffset(stream, 64))[0]);
+        }
+
+    }
+
+    public static class XorShift1024Star extends RandomBase64
+    {
+
+        private final long[] seed = new long[16];
+        private int seedIndex;
+        private int nextIndex;
+
+        // Needs 16 values.
+        public XorShift1024Star(long... state)
+        {
+            System.arraycopy(state, 0, seed, 0, 16);
+        }
+
+        @Override
+        protected long next64(int bits)
+        {
+            long s0 = seed[nextIndex];
+            nextIndex = (nextIndex + 1) & 15;
+            long s1 = seed[nextIndex];
+            s1 ^= s1 << 31;
+            s1 ^= s1 >>> 11;
+            s1 ^= s0 ^ (s0 >>> 30);
+            seed[nextIndex] = s1;
+
+            return (s1 * 1181783497276652981L) >>> (64 - bits);
+        }
+
+        @Override
+        public long getSeed()
+        {
+            return seed[seedIndex];
+        }
+
+        @Override
+        public void setSeed(long seed)
+        {
+            this.seed[seedIndex] = seed;
+            seedIndex = (seedIndex + 1) & 15;
+        }
+
+    }
+
+    public static class XorShift128Plus extends RandomBase64
+    {
+
+        private static final LinearJump JUMP = new LinearJump(128, XorShift128Plus::step);
+
+        private final long[] seed = new long[2];
+        private int seedIndex;
+
+        public XorShift128Plus(long state0, long state1)
+        {
+            seed[0] = state0;
+            seed[1] = state1;
+        }
+
+        private static long[] step(long[] s)
+        {
+            long x = s[0];
+            long y = s[1];
+            x ^= x << 23;
+            return new long[] { y, x ^ y ^ (x >>> 17) ^ (y >>> 26) };
+        }
+
+        @Override
+        protected long next64(int bits)
+        {
+            long[] s = step(seed);
+            seed[0] = s[0];
+            seed[1] = s[1];
+            return (seed[1] + seed[0]) >>> (64 - bits);
+        }
+
+        @Override
+        public long getSeed()
+        {
+            return seed[0];
+        }
+
+        @Override
+        public void setSeed(long seed)
+        {
+            this.seed[seedIndex] = seed;
+            seedIndex ^= 1;
+        }
+
+        public void jump(long steps)
+        {
+            long[] s = JUMP.jump(seed, steps);
+            seed[0] = s[0];
+            seed[1] = s[1];
+        }
+
+        // Returns a generator that starts (stream + 1) * 2^64 values further on.
+        public XorShift128Plus split(int stream)
+        {
+            long[] s = JUMP.jump(seed, LinearJump.streamOffset(stream, 128));
+            XorShift128Plus result = new XorShift128Plus(s[0], s[1]);
+            result.seedIndex = seedIndex;
+            return result;
+        }
+
+    }
+
+    // Jumps ahead in the sequence of a generator whose state transition is linear over GF(2).
+    // The transition is a bits x bits matrix T, so n steps are T^n, which is calculated from the
+    // cached powers T^(2^k). That takes at most bits^2 operations per set bit of n, instead of
+    // n single steps.
+    static final class LinearJump
+    {
+
+        private final int bits;
+        private final UnaryOperator<long[]> step;
+        private final ArrayList<long[][]> powers = new ArrayList<>();
+
+        LinearJump(int bits, UnaryOperator<long[]> step)
+        {
+            this.bits = bits;
+            this.step = step;
+        }
+
+        // (stream + 1) * 2^(bits / 2), i.e. streams are half the period apart, in bits.
+        static BigInteger streamOffset(int stream, int bits)
+        {
+            return BigInteger.valueOf(stream).add(BigInteger.ONE).shiftLeft(bits / 2);
+        }
+
+        long[] jump(long[] state, long steps)
+        {
+            return jump(state, new BigInteger(Long.toUnsignedString(steps)));
+        }
+
+        long[] jump(long[] state, BigInteger steps)
+        {
+            long[] result = state.clone();
+            for (int k = 0; k < steps.bitLength(); k++)
+                if (steps.testBit(k))
+                    result = multiply(power(k), result);
+            return result;
+        }
+
+        // Column i of the matrix is the image of bit i.
+        private long[] multiply(long[][] matrix, long[] vector)
+        {
+            long[] result = new long[vector.length];
+            for (int i = 0; i < bits; i++)
+                if ((vector[i >> 6] & (1L << i)) != 0)
+                    for (int j = 0; j < result.length; j++)
+                        result[j] ^= matrix[i][j];
+            return result;
+        }
+
+        private synchronized long[][] power(int k)
+        {
+            while (powers.size() <= k)
+            {
+                long[][] matrix = new long[bits][];
+                if (powers.isEmpty())
+                {
+                    for (int i = 0; i < bits; i++)
+                    {
+                        long[] unit = new long[(bits + 63) >> 6];
+                        unit[i >> 6] = 1L << i;
+                        matrix[i] = step.apply(unit);
+                    }
+                }
+                else
+                {
+                    long[][] last = powers.get(powers.size() - 1);
+                    for (int i = 0; i < bits; i++)
+                        matrix[i] = multiply(last, last[i]);
+                }
+                powers.add(matrix);
+            }
+            return powers.get(k);
+        }
+
+    }
+
+}